@@ -1,18 +1,32 @@
 package com.tranquility.SpeakSmart.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.CompositeTaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
 @EnableScheduling
 public class AsyncConfiguration {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Bean(name = "audioProcessingTaskExecutor")
     public Executor audioProcessingTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -30,7 +44,7 @@ public class AsyncConfiguration {
         executor.setThreadNamePrefix("AudioProcessing-");
 
         // Rejection policy when queue is full
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
 
         // Allow core threads to timeout
         executor.setAllowCoreThreadTimeOut(true);
@@ -42,8 +56,7 @@ public class AsyncConfiguration {
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
 
-        executor.initialize();
-        return executor;
+        return instrument(executor, "audioProcessingTaskExecutor");
     }
 
     @Bean(name = "generalTaskExecutor")
@@ -53,8 +66,120 @@ public class AsyncConfiguration {
         executor.setMaxPoolSize(3);
         executor.setQueueCapacity(5);
         executor.setThreadNamePrefix("GeneralTask-");
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return instrument(executor, "generalTaskExecutor");
+    }
+
+    @Bean(name = "contentPoolTaskExecutor")
+    public Executor contentPoolTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(5);
+        executor.setThreadNamePrefix("ContentPool-");
+        // Refills are best-effort, never run them on the request thread
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return instrument(executor, "contentPoolTaskExecutor");
+    }
+
+    @Bean(name = "llmStreamingTaskExecutor")
+    public Executor llmStreamingTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // Streams are I/O bound and held open for the whole generation
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("LlmStreaming-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return instrument(executor, "llmStreamingTaskExecutor");
+    }
+
+    @Bean(name = "transcriptionTaskExecutor")
+    public Executor transcriptionTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // Chunk uploads are I/O bound, several chunks of one job run side by side
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(10);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("Transcription-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return instrument(executor, "transcriptionTaskExecutor");
+    }
+
+    @Bean(name = "vocabAnalysisTaskExecutor")
+    public Executor vocabAnalysisTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // Transcript chunks of one vocab analysis are sent to the LLM side by side
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(12);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("VocabAnalysis-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return instrument(executor, "vocabAnalysisTaskExecutor");
+    }
+
+    @Bean(name = "speechPrefetchTaskExecutor")
+    public Executor speechPrefetchTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // Speculative work only, low priority threads and no caller fallback when saturated
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(20);
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setThreadNamePrefix("SpeechPrefetch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return instrument(executor, "speechPrefetchTaskExecutor");
+    }
+
+    @Bean(name = "rescoringTaskExecutor")
+    public Executor rescoringTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // Admin rescoring jobs run one at a time, RescoringService refuses a second one
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("Rescoring-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return instrument(executor, "rescoringTaskExecutor");
+    }
+
+    /**
+     * Initialize the executor with task wait timing and a count of saturated submissions, tagged
+     * {@code name} like the pool gauges Spring Boot binds for every executor bean. Tasks also
+     * carry the submitter's observation, so spans started on the pool join the caller's trace.
+     * Every pool should be created through here.
+     */
+    private ThreadPoolTaskExecutor instrument(ThreadPoolTaskExecutor executor, String name) {
+        Timer waitTimer = Timer.builder("executor.queue.wait")
+                .description("Time tasks wait between submission and start")
+                .tag("name", name)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(meterRegistry);
+        TaskDecorator waitTiming = task -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                waitTimer.record(Duration.ofNanos(System.nanoTime() - submittedAt));
+                task.run();
+            };
+        };
+        executor.setTaskDecorator(new CompositeTaskDecorator(List.of(new ContextPropagatingTaskDecorator(), waitTiming)));
         executor.initialize();
+
+        // Saturated pools either run the task on the caller or drop it, count both
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        RejectedExecutionHandler policy = pool.getRejectedExecutionHandler();
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("Tasks the saturated pool ran on the caller or refused")
+                .tag("name", name)
+                .tag("policy", policy instanceof ThreadPoolExecutor.CallerRunsPolicy ? "caller_runs"
+                        : policy instanceof ThreadPoolExecutor.AbortPolicy ? "abort" : policy.getClass().getSimpleName())
+                .register(meterRegistry);
+        pool.setRejectedExecutionHandler((task, threadPool) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, threadPool);
+        });
         return executor;
     }
 }
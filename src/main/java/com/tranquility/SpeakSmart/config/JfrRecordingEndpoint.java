@@ -0,0 +1,143 @@
+package com.tranquility.SpeakSmart.config;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Starts and stops a JDK Flight Recording on demand, at most one at a time, so a slow analysis
+ * can be caught in production next to the {@code speaksmart.*} pipeline events.
+ * <p>
+ * {@code POST /actuator/jfr} starts a recording ({@code durationSeconds}, {@code maxSizeMb},
+ * {@code settings} = default|profile, all optional and capped by {@code jfr.*}; 409 while one runs),
+ * {@code DELETE} stops it early, {@code GET} shows its state and {@code GET /actuator/jfr/<file>}
+ * downloads a finished one. A recording that runs its full duration is written on its own.
+ * Starting one deletes the oldest files beyond the last {@code jfr.keep-files}.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final Pattern FILE_NAME = Pattern.compile("speaksmart-\\d{8}-\\d{6}\\.jfr");
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    @Value("${jfr.directory:${java.io.tmpdir}/speaksmart-jfr}")
+    private Path directory;
+
+    @Value("${jfr.max-duration-seconds:600}")
+    private long maxDurationSeconds;
+
+    @Value("${jfr.max-size-mb:250}")
+    private long maxSizeMb;
+
+    @Value("${jfr.keep-files:3}")
+    private int keepFiles;
+
+    private Recording recording;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording != null ? recording.getState().name() : "NONE");
+        if (recording != null) {
+            status.put("startedAt", recording.getStartTime());
+            status.put("duration", recording.getDuration());
+            status.put("maxSizeBytes", recording.getMaxSize());
+            status.put("sizeBytes", recording.getSize());
+            status.put("file", recording.getDestination().getFileName().toString());
+        }
+        status.put("maxDurationSeconds", maxDurationSeconds);
+        status.put("maxSizeMb", maxSizeMb);
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable Long durationSeconds,
+                                                                       @Nullable Long maxSizeMb,
+                                                                       @Nullable String settings) throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(status(), HttpStatus.CONFLICT.value());
+        }
+        long duration = Math.min(durationSeconds != null && durationSeconds > 0 ? durationSeconds : 60, maxDurationSeconds);
+        long sizeMb = Math.min(maxSizeMb != null && maxSizeMb > 0 ? maxSizeMb : this.maxSizeMb, this.maxSizeMb);
+
+        if (recording != null) {
+            recording.close();
+        }
+        Files.createDirectories(directory);
+        deleteOldRecordings(Math.max(keepFiles, 1) - 1);
+        Path file = directory.resolve("speaksmart-" + FILE_TIMESTAMP.format(Instant.now()) + ".jfr");
+        recording = new Recording(Configuration.getConfiguration("profile".equals(settings) ? "profile" : "default"));
+        recording.setName("speaksmart-on-demand");
+        recording.enable("speaksmart.PipelineStage");
+        recording.enable("speaksmart.AnalysisJob");
+        recording.setDuration(Duration.ofSeconds(duration));
+        recording.setMaxSize(sizeMb * 1024 * 1024);
+        recording.setToDisk(true);
+        recording.setDestination(file);
+        recording.start();
+        log.info("Started JFR recording {} for {}s, max {} MB", file, duration, sizeMb);
+        return new WebEndpointResponse<>(status());
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped JFR recording {}", recording.getDestination());
+        }
+        return status();
+    }
+
+    // File names sort by start time, keep the newest
+    private void deleteOldRecordings(int keep) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> FILE_NAME.matcher(path.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+        }
+        for (Path old : files.subList(Math.min(keep, files.size()), files.size())) {
+            Files.deleteIfExists(old);
+            log.info("Deleted old JFR recording {}", old);
+        }
+    }
+
+    @ReadOperation
+    public Resource download(@Selector String file) {
+        if (!FILE_NAME.matcher(file).matches() || !Files.isRegularFile(directory.resolve(file))) {
+            return null;
+        }
+        return new FileSystemResource(directory.resolve(file));
+    }
+}
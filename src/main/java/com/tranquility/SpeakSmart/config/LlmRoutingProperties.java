@@ -0,0 +1,32 @@
+package com.tranquility.SpeakSmart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model candidates and latency budgets per LLM task, bound from {@code llm-routing.*}
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "llm-routing")
+public class LlmRoutingProperties {
+
+    private boolean enabled = true;
+    private int windowSize = 50;                // latest calls kept per task and model
+    private long sampleTtlSeconds = 300;        // older samples are forgotten so a demoted model gets retried
+    private int minSamples = 5;                 // below this the stats are not trusted
+    private double maxErrorRate = 0.25;
+    private Map<String, Task> tasks = new LinkedHashMap<>();
+
+    @Data
+    public static class Task {
+        private List<String> models = List.of();    // in order of preference
+        private long latencyBudgetMs = 10_000;      // p95 target, a model over it is demoted
+        private int timeoutMs = 30_000;             // per call, shared by its failover attempts
+    }
+}
@@ -0,0 +1,42 @@
+package com.tranquility.SpeakSmart.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Behaviour of the offline Groq/Cloudinary stand-in, bound from {@code offline-stub.*}
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "offline-stub")
+public class OfflineStubProperties {
+
+    private boolean enabled = false;
+    private long seed = 0;                                  // 0 picks a random seed
+    private double errorRate = 0;                           // share of calls answered with an error status
+    private List<Integer> errorStatuses = List.of(429, 503);
+    private int tokenDelayMs = 10;                          // between streamed chat chunks
+    private int maxStoredFiles = 1000;                      // uploads kept in memory, oldest dropped first
+
+    private Latency transcription = new Latency(300, 0.4, 30);
+    private Latency chat = new Latency(800, 0.5, 0);
+    private Latency upload = new Latency(100, 0.3, 0);
+
+    /**
+     * Log-normal latency: {@code medianMs * exp(sigma * N(0,1))}, plus a fixed cost per
+     * second of audio for transcription
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Latency {
+        private long medianMs;
+        private double sigma;
+        private long perAudioSecondMs;
+    }
+}
@@ -0,0 +1,24 @@
+package com.tranquility.SpeakSmart.config;
+
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Outbound HTTP goes through templates from Boot's {@link RestTemplateBuilder}, which observes
+ * every call: a client span with trace headers plus {@code http.client.requests} metrics.
+ */
+@Configuration
+public class RestTemplateConfiguration {
+
+    /**
+     * Shared template for plain calls without their own timeouts (downloads, OAuth)
+     */
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+        // JDK URLConnection as before, Cloudinary's Apache client on the classpath would be picked otherwise
+        return builder.requestFactoryBuilder(ClientHttpRequestFactoryBuilder.simple()).build();
+    }
+}
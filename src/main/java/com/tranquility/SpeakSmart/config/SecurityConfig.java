@@ -39,8 +39,9 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
-                        .requestMatchers("/admins/**", "/users/**").authenticated()
                         .requestMatchers("/admins/**").hasRole(Roles.ADMIN.name())
+                        .requestMatchers("/users/**").authenticated()
+                        .requestMatchers("/actuator/jfr/**").hasRole(Roles.ADMIN.name())
                         .anyRequest().permitAll()
                 )
 //                .httpBasic(Customizer.withDefaults())
@@ -8,7 +8,9 @@ import java.nio.file.Files;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -22,6 +24,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -33,15 +36,24 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tranquility.SpeakSmart.model.AnalysisRequest;
+import com.tranquility.SpeakSmart.repository.AnalysisFeaturesRepository;
 import com.tranquility.SpeakSmart.repository.AnalysisRequestRepository;
 import com.tranquility.SpeakSmart.service.AIService;
 import com.tranquility.SpeakSmart.service.AsyncAudioProcessingService;
 import com.tranquility.SpeakSmart.service.CloudinaryService;
+import com.tranquility.SpeakSmart.service.FeatureSeriesService;
+import com.tranquility.SpeakSmart.service.ContentPoolService;
+import com.tranquility.SpeakSmart.service.LlmStreamingService;
+import com.tranquility.SpeakSmart.service.PipelineMetrics;
+import com.tranquility.SpeakSmart.service.SpeechPrefetchService;
 import com.tranquility.SpeakSmart.service.UserService;
+import com.tranquility.SpeakSmart.util.AuthUtils;
+import com.tranquility.SpeakSmart.util.FeatureVectorCodec;
 import com.tranquility.SpeakSmart.util.LlmUtils;
 
 import lombok.Data;
@@ -64,12 +76,32 @@ public class AIController {
     @Autowired
     private AnalysisRequestRepository analysisRequestRepository;
 
+    @Autowired
+    private AnalysisFeaturesRepository analysisFeaturesRepository;
+
     @Autowired
     private AsyncAudioProcessingService asyncProcessingService;
 
+    @Autowired
+    private ContentPoolService contentPoolService;
+
+    @Autowired
+    private LlmStreamingService llmStreamingService;
+
+    @Autowired
+    private SpeechPrefetchService speechPrefetchService;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private FeatureSeriesService featureSeriesService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    private static final long STREAM_TIMEOUT_MS = 120_000;
+
     /**
      * Optimized audio upload endpoint 1. Validates and uploads audio to
      * Cloudinary immediately 2. Creates analysis request in DB with PENDING
@@ -88,7 +120,10 @@ public class AIController {
 
             // Validate audio file
             log.info("Starting audio file validation...");
+            PipelineMetrics.Sample validationSample = PipelineMetrics.Sample.start();
             ValidationResult validation = AudioUtils.validateAudioFile(file);
+            pipelineMetrics.record(PipelineMetrics.Stage.TRANSCODE, validation.getDurationSeconds(),
+                    validation.isValid(), validationSample.stop());
             if (!validation.isValid()) {
                 log.error("Audio file validation failed: {}", validation.getErrorMessage());
                 return ResponseEntity.badRequest().body(Map.of("error", validation.getErrorMessage()));
@@ -106,11 +141,24 @@ public class AIController {
             String audioUrl = (String) uploadResult.get("secure_url");
             String audioPublicId = (String) uploadResult.get("public_id");
 
+            // Compact copy for transcription, analysis falls back to the WAV if this is missing
+            Map<String, Object> transcriptionUploadResult = null;
+            try {
+                transcriptionUploadResult = cloudinaryService.uploadAudio(
+                        validation.getTranscriptionAudioFile(), AudioUtils.TRANSCRIPTION_AUDIO_CONTENT_TYPE);
+            } catch (Exception e) {
+                log.warn("Upload of compact transcription audio failed, continuing without it: {}", e.getMessage());
+            }
+
             // Create analysis request in DB
             AnalysisRequest request = new AnalysisRequest();
             request.setUserId(userId);
             request.setAudioUrl(audioUrl);
             request.setAudioPublicId(audioPublicId);
+            if (transcriptionUploadResult != null) {
+                request.setTranscriptionAudioUrl((String) transcriptionUploadResult.get("secure_url"));
+                request.setTranscriptionAudioPublicId((String) transcriptionUploadResult.get("public_id"));
+            }
             request.setFileName(file.getOriginalFilename());
             request.setFileContentType(file.getContentType());
             request.setFileSizeBytes(file.getSize());
@@ -279,6 +327,12 @@ public class AIController {
             Map<String, Object> response = new HashMap<>();
             response.put("analysis_result_url", request.getAnalysisResultUrl());
             response.put("public_id", request.getAnalysisResultPublicId());
+            // Rescored analyses: the scores in the JSON are stale, the quick results have the current ones
+            if (request.getScoringVersion() != null && !request.getScoringVersion().equals(request.getResultScoringVersion())) {
+                response.put("scores_superseded", true);
+                response.put("scoring_version", request.getScoringVersion());
+                response.put("quick_results", request.getQuickResults());
+            }
 
             return ResponseEntity.ok(response);
 
@@ -289,6 +343,59 @@ public class AIController {
         }
     }
 
+    /**
+     * Pitch or energy contour of an analysis over [start, end] seconds, at most maxPoints
+     * min/max/mean points, for charts that zoom without downloading every frame
+     */
+    @GetMapping("/analysis/{requestId}/series/{series}")
+    public ResponseEntity<?> getAnalysisSeries(@PathVariable String requestId,
+                                               @PathVariable String series,
+                                               @RequestParam(defaultValue = "0") double start,
+                                               @RequestParam(required = false) Double end,
+                                               @RequestParam(defaultValue = "500") int maxPoints) {
+        try {
+            String userId = userService.getCurrentUserId();
+
+            if (analysisRequestRepository.findByIdAndUserId(requestId, userId).isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            FeatureVectorCodec.Series seriesName;
+            try {
+                seriesName = FeatureVectorCodec.Series.valueOf(series.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Unknown series: " + series));
+            }
+
+            Optional<FeatureSeriesService.SeriesWindow> optionalWindow =
+                    featureSeriesService.window(requestId, seriesName, start, end, maxPoints);
+            if (optionalWindow.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "No stored series for this analysis"));
+            }
+
+            FeatureSeriesService.SeriesWindow window = optionalWindow.get();
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("request_id", requestId);
+            response.put("series", series.toLowerCase(Locale.ROOT));
+            response.put("start", window.start());
+            response.put("end", window.end());
+            response.put("resolution_seconds", window.resolutionSeconds());
+            response.put("time", window.time());
+            response.put("min", window.min());
+            response.put("max", window.max());
+            response.put("mean", window.mean());
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error getting analysis series", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to get analysis series: " + e.getMessage()));
+        }
+    }
+
     private int estimateProcessingTime(double durationSeconds) {
         // Rough estimate: 2-4x the audio duration for processing
         return (int) Math.ceil(durationSeconds * 3);
@@ -314,18 +421,28 @@ public class AIController {
 
     @PostMapping("/generate-random-topics")
     public ResponseEntity<?> generateRandomTopics() throws Exception {
-        String output = aiService.generateRandomTopics();
-        JsonNode topics = LlmUtils.extractJsonFromLlm(output);
+        JsonNode topics = contentPoolService.take(ContentPoolService.ContentType.RANDOM_TOPICS);
+        speechPrefetchService.prefetch(AuthUtils.getUsername(), topics);
         return ResponseEntity.ok(topics);
     }
 
     @PostMapping("/generate-speech")
     public ResponseEntity<?> generateSpeech(@RequestBody String topic) throws Exception {
-        String output = aiService.generateSpeech(topic);
+        String output = speechPrefetchService.getSpeech(AuthUtils.getUsername(), topic);
         JsonNode speech = LlmUtils.extractJsonFromLlm(output);
         return ResponseEntity.ok(speech);
     }
 
+    /**
+     * Streaming variant of generate-speech, the speech text arrives as SSE events while it is generated
+     */
+    @PostMapping(value = "/generate-speech/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSpeech(@RequestBody String topic) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        llmStreamingService.streamSpeech(AuthUtils.getUsername(), topic, emitter);
+        return emitter;
+    }
+
     @PostMapping("/generate-rephrasals")
     public ResponseEntity<?> generateRephrasals(@RequestBody String speech) throws Exception {
         String output = aiService.generateRephrasals(speech);
@@ -333,13 +450,28 @@ public class AIController {
         return ResponseEntity.ok(rephrasals);
     }
 
+    /**
+     * Streaming variant of generate-rephrasals, each style is forwarded field by field as SSE events
+     */
+    @PostMapping(value = "/generate-rephrasals/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRephrasals(@RequestBody String speech) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        llmStreamingService.streamRephrasals(speech, emitter);
+        return emitter;
+    }
+
     @PostMapping("/generate-slow-fast-drill")
     public ResponseEntity<?> generateSlowFastDrill() throws Exception {
-        String output = aiService.generateSlowFastDrill();
-        JsonNode drill = LlmUtils.extractJsonFromLlm(output);
+        JsonNode drill = contentPoolService.take(ContentPoolService.ContentType.SLOW_FAST_DRILL);
         return ResponseEntity.ok(drill);
     }
 
+    @PostMapping("/generate-mock-interview")
+    public ResponseEntity<?> generateMockInterview() throws Exception {
+        JsonNode interview = contentPoolService.take(ContentPoolService.ContentType.MOCK_INTERVIEW);
+        return ResponseEntity.ok(interview);
+    }
+
     /**
      * Delete analysis and all associated files
      */
@@ -369,6 +501,15 @@ public class AIController {
                 }
             }
 
+            if (request.getTranscriptionAudioPublicId() != null) {
+                try {
+                    cloudinaryService.deleteFile(request.getTranscriptionAudioPublicId(), "video");
+                    log.info("Transcription audio deleted from Cloudinary: {}", request.getTranscriptionAudioPublicId());
+                } catch (IOException e) {
+                    log.error("Error deleting transcription audio from Cloudinary: {}", e.getMessage());
+                }
+            }
+
             // Step 2: Fetch and parse analysis result JSON to get chart URLs
             if (request.getAnalysisResultUrl() != null) {
                 try {
@@ -399,7 +540,8 @@ public class AIController {
 
             // Step 4: Delete the document from MongoDB
             analysisRequestRepository.delete(request);
-            log.info("Analysis request deleted from database: {}", requestId);
+            analysisFeaturesRepository.deleteById(requestId);
+            log.info("Analysis request and its stored features deleted from database: {}", requestId);
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Analysis deleted successfully");
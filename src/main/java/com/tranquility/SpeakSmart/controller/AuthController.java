@@ -47,14 +47,15 @@ public class AuthController {
     @Value("${spring.security.oauth2.client.registration.linkedin.redirect-uri}")
     private String linkedinRedirectUri;
 
-    private RestTemplate restTemplate;
+    private final RestTemplate restTemplate;
     private final PasswordEncoder passwordEncoder;
 
     private final UserService userService;
     private final CustomUserDetailsService userDetailsService;
 
-    public AuthController(PasswordEncoder passwordEncoder, UserService userService, CustomUserDetailsService userDetailsService) {
-        this.restTemplate = new RestTemplate();
+    public AuthController(RestTemplate restTemplate, PasswordEncoder passwordEncoder, UserService userService,
+                          CustomUserDetailsService userDetailsService) {
+        this.restTemplate = restTemplate;
         this.passwordEncoder = passwordEncoder;
         this.userService = userService;
         this.userDetailsService = userDetailsService;
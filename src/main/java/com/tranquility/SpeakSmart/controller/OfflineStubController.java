@@ -0,0 +1,146 @@
+package com.tranquility.SpeakSmart.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tranquility.SpeakSmart.config.OfflineStubProperties;
+import com.tranquility.SpeakSmart.service.OfflineStubService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Local stand-in for the Groq and Cloudinary APIs, so the whole pipeline can run and be
+ * load-tested offline. Point {@code groq.api.base-url} and {@code cloudinary.upload-prefix}
+ * here, as the {@code offline} profile does.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/stub")
+@ConditionalOnProperty(name = "offline-stub.enabled", havingValue = "true")
+public class OfflineStubController {
+
+    @Autowired
+    private OfflineStubService stubService;
+
+    @Autowired
+    private OfflineStubProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // ------------------- Groq -------------------
+
+    @PostMapping(value = "/groq/openai/v1/audio/transcriptions", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> transcribe(@RequestPart("file") MultipartFile file,
+                                        @RequestParam(value = "timestamp_granularities[]", required = false) List<String> granularities)
+            throws Exception {
+        byte[] audio = file.getBytes();
+        stubService.delay(properties.getTranscription(), stubService.audioDurationSeconds(audio));
+        Optional<Integer> error = stubService.injectedError();
+        if (error.isPresent()) {
+            return ResponseEntity.status(error.get()).body(stubService.errorBody(error.get()));
+        }
+        boolean words = granularities != null && granularities.contains("word");
+        return ResponseEntity.ok(stubService.transcription(audio, words));
+    }
+
+    /**
+     * Always answers through a {@link StreamingResponseBody}, which MVC only picks up when it is
+     * the declared body type
+     */
+    @PostMapping("/groq/openai/v1/chat/completions")
+    public ResponseEntity<StreamingResponseBody> chatCompletions(@RequestBody JsonNode request) throws Exception {
+        String model = request.path("model").asText();
+        String systemMessage = "";
+        String userMessage = "";
+        for (JsonNode message : request.path("messages")) {
+            if ("system".equals(message.path("role").asText())) {
+                systemMessage = message.path("content").asText();
+            } else if ("user".equals(message.path("role").asText())) {
+                userMessage = message.path("content").asText();
+            }
+        }
+        String completion = stubService.chatCompletion(model, systemMessage, userMessage);
+
+        stubService.delay(properties.getChat(), 0);
+        Optional<Integer> error = stubService.injectedError();
+        if (error.isPresent()) {
+            byte[] body = objectMapper.writeValueAsBytes(stubService.errorBody(error.get()));
+            return ResponseEntity.status(error.get()).contentType(MediaType.APPLICATION_JSON).body(out -> out.write(body));
+        }
+
+        if (!request.path("stream").asBoolean(false)) {
+            byte[] body = objectMapper.writeValueAsBytes(Map.of(
+                    "object", "chat.completion",
+                    "model", model,
+                    "choices", List.of(Map.of(
+                            "index", 0,
+                            "message", Map.of("role", "assistant", "content", completion),
+                            "finish_reason", "stop"))));
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(out -> out.write(body));
+        }
+
+        StreamingResponseBody body = out -> {
+            for (String token : stubService.tokens(completion)) {
+                Map<String, Object> chunk = Map.of(
+                        "object", "chat.completion.chunk",
+                        "model", model,
+                        "choices", List.of(Map.of("index", 0, "delta", Map.of("content", token))));
+                out.write(("data: " + objectMapper.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                try {
+                    Thread.sleep(properties.getTokenDelayMs());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(body);
+    }
+
+    // ------------------- Cloudinary -------------------
+
+    @PostMapping("/cloudinary/v1_1/{cloudName}/{resourceType}/upload")
+    public ResponseEntity<?> upload(@PathVariable String cloudName,
+                                    @PathVariable String resourceType,
+                                    @RequestPart("file") MultipartFile file,
+                                    @RequestParam(value = "folder", required = false) String folder,
+                                    @RequestParam(value = "public_id", required = false) String publicId) throws Exception {
+        stubService.delay(properties.getUpload(), 0);
+        Optional<Integer> error = stubService.injectedError();
+        if (error.isPresent()) {
+            return ResponseEntity.status(error.get()).body(stubService.errorBody(error.get()));
+        }
+        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+        return ResponseEntity.ok(stubService.store(resourceType, folder, publicId, file.getBytes(), baseUrl));
+    }
+
+    @PostMapping("/cloudinary/v1_1/{cloudName}/{resourceType}/destroy")
+    public ResponseEntity<?> destroy(@PathVariable String cloudName,
+                                     @PathVariable String resourceType,
+                                     @RequestParam("public_id") String publicId) throws Exception {
+        stubService.delay(properties.getUpload(), 0);
+        return ResponseEntity.ok(Map.of("result", stubService.delete(publicId) ? "ok" : "not found"));
+    }
+
+    @GetMapping("/cloudinary/files/{fileId}")
+    public ResponseEntity<byte[]> file(@PathVariable String fileId) {
+        return stubService.file(fileId)
+                .map(content -> ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(content))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
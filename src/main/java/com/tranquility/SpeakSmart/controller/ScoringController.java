@@ -0,0 +1,84 @@
+package com.tranquility.SpeakSmart.controller;
+
+import com.tranquility.SpeakSmart.model.AnalysisResult;
+import com.tranquility.SpeakSmart.service.RescoringService;
+import com.tranquility.SpeakSmart.service.ScoringModels;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+@RestController
+@RequestMapping("/admins/scoring")
+public class ScoringController {
+
+    @Autowired
+    private ScoringModels scoringModels;
+
+    @Autowired
+    private RescoringService rescoringService;
+
+    @GetMapping("/versions")
+    public ResponseEntity<?> getVersions() {
+        return ResponseEntity.ok(Map.of(
+                "current", scoringModels.current().version(),
+                "available", scoringModels.versions()
+        ));
+    }
+
+    /**
+     * Dry run: score one stored analysis with the given version without saving
+     */
+    @GetMapping("/rescore/{requestId}")
+    public ResponseEntity<?> rescore(@PathVariable String requestId, @RequestParam int version) {
+        try {
+            Optional<AnalysisResult> result = rescoringService.rescore(requestId, version);
+            if (result.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(result.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error rescoring request: {}", requestId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to rescore analysis: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Start rescoring every stored analysis with the given version in the background; poll the
+     * returned job for progress
+     */
+    @PostMapping("/rescore")
+    public ResponseEntity<?> rescoreAll(@RequestParam int version) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(rescoringService.startRescoreAll(version).summary());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error starting rescoring with version {}", version, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to start rescoring: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/rescore/jobs/{jobId}")
+    public ResponseEntity<?> getRescoreJob(@PathVariable String jobId) {
+        return rescoringService.job(jobId)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(job.summary()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -30,6 +30,14 @@ public class JWTFilter extends OncePerRequestFilter {
     @Autowired
     private JWTUtil jwtUtil;
 
+    /**
+     * The offline provider stand-in receives provider API keys as bearer tokens, not our JWTs
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/stub/");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
         logger.info("Request Received:{} {}", request.getMethod(), request.getRequestURI());
@@ -0,0 +1,24 @@
+package com.tranquility.SpeakSmart.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "analysis_features")
+public class AnalysisFeatures {
+
+    @Id
+    private String requestId;
+    private String userId;
+    private int formatVersion;      // FeatureVectorCodec format of data
+    private byte[] data;            // encoded FeatureVector
+    private byte[] pyramid;         // FeaturePyramid of the series in data
+    private Instant createdAt;
+}
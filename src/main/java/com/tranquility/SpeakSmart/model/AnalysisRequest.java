@@ -17,6 +17,8 @@ public class AnalysisRequest {
     private String userId;
     private String audioUrl;          // Cloudinary URL
     private String audioPublicId;     // Cloudinary public ID
+    private String transcriptionAudioUrl;       // Compact 16 kHz FLAC sent to Whisper
+    private String transcriptionAudioPublicId;
     private String fileName;
     private String fileContentType;
     private Long fileSizeBytes;
@@ -34,6 +36,8 @@ public class AnalysisRequest {
     private String analysisResultUrl;    // URL to JSON file in Cloudinary
     private String analysisResultPublicId;
     private Map<String, Object> quickResults;  // Basic results for quick display
+    private Integer scoringVersion;            // ScoringModel version of the scores in quickResults
+    private Integer resultScoringVersion;      // ScoringModel version of the scores in the result JSON
 
     public enum AnalysisStatus {
         PENDING, // Just uploaded, waiting to process
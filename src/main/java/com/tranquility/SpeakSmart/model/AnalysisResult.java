@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,7 +24,9 @@ public class AnalysisResult {
     private IntonationAnalysis intonation;
     private EnergyAnalysis energy;
     private PauseAnalysis pauses;
+    private FillerWordAnalysis fillerWords;
     private double overallScore;
+    private int scoringVersion;                // ScoringModel version the scores come from
     private VocabAnalysis vocabAnalysis;
 //    private List<Suggestion> suggestions;
 
@@ -35,10 +38,11 @@ public class AnalysisResult {
     public static class ProcessingMetrics {
 
         private long totalProcessingTimeMs;
-        private long audioLoadTimeMs;
-        private long transcriptionTimeMs;
-        private long analysisTimeMs;
-        private long memoryUsedMb;
+        private long cpuTimeMs;                 // job thread only, up to this result being built
+        private long allocatedBytes;            // likewise
+        private Map<String, Long> stageTimeMs = new LinkedHashMap<>();     // keyed by pipeline stage, e.g. "dsp"
+        private Map<String, Long> stageCpuMs = new LinkedHashMap<>();
+        private Map<String, Long> stageAllocatedBytes = new LinkedHashMap<>();
     }
 
     @Data
@@ -75,6 +79,9 @@ public class AnalysisResult {
         private List<SpeechSegment> segments;
         private SpeechSegment slowestSegment;
         private SpeechSegment fastestSegment;
+        private double windowSeconds;
+        private double stepSeconds;
+        private double[] windowedWpm;  // sliding-window WPM, sample i is centered at i * stepSeconds
         private String chartUrl;  // URL to chart image in Cloudinary
         private double score;  // 0-100
         private String feedback;
@@ -127,6 +134,27 @@ public class AnalysisResult {
         private double duration;
     }
 
+    @Data
+    public static class FillerWordAnalysis {
+        private int totalFillers;
+        private double fillersPerMinute;
+        private Map<String, Integer> counts;
+        private List<FillerOccurrence> occurrences;
+        private double score;
+        private String feedback;
+        private String category;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FillerOccurrence {
+        private String word;
+        private int startIndex;     // offsets into TranscriptionResult.fullText
+        private int endIndex;
+        private double time;        // seconds, interpolated within the Whisper segment
+    }
+
     @Data
     public static class Suggestion {
 
@@ -0,0 +1,27 @@
+package com.tranquility.SpeakSmart.model;
+
+import lombok.Data;
+
+/**
+ * The per-frame and per-segment features an analysis is scored from. Stored with every analysis
+ * so changed score formulas can be applied to history without touching the audio again.
+ */
+@Data
+public class FeatureVector {
+
+    private double durationSeconds;
+    private int sampleRate;
+    private double frameStepSeconds;                // DSP hop, series times are multiples of it
+
+    private float[] pitchTimes = new float[0];      // seconds, voiced frames only
+    private float[] pitchHz = new float[0];
+    private float[] energyTimes = new float[0];     // seconds, every DSP frame
+    private float[] energyRms = new float[0];
+
+    private double[] segmentStarts = new double[0]; // transcript segments, seconds
+    private double[] segmentEnds = new double[0];
+    private double[] segmentWpm = new double[0];
+
+    private int wordCount;
+    private int fillerCount;
+}
@@ -0,0 +1,24 @@
+package com.tranquility.SpeakSmart.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "llm_cache")
+public class LlmCacheEntry {
+
+    @Id
+    private String key;         // task:promptVersion:model:sha256(normalized input)
+    private String response;    // raw LLM completion
+    private Instant createdAt;
+    @Indexed(expireAfterSeconds = 0)     // TTL index, Mongo deletes entries once expired
+    private Instant expiresAt;
+}
@@ -0,0 +1,52 @@
+package com.tranquility.SpeakSmart.model;
+
+import lombok.Data;
+
+import java.util.Arrays;
+
+/**
+ * Whisper verbose_json response. Segments and words are kept as parallel primitive arrays,
+ * only the first {@code segmentCount} / {@code wordCount} entries are valid.
+ */
+@Data
+public class TranscriptionResponse {
+    private String language;
+    private double duration;
+    private String text;
+
+    private int segmentCount;
+    private double[] segmentStarts = new double[16];
+    private double[] segmentEnds = new double[16];
+    private String[] segmentTexts = new String[16];
+
+    private int wordCount;
+    private double[] wordStarts = new double[0];
+    private double[] wordEnds = new double[0];
+    private String[] words = new String[0];
+
+    public void addSegment(double start, double end, String text) {
+        if (segmentCount == segmentStarts.length) {
+            int capacity = Math.max(16, segmentCount * 2);
+            segmentStarts = Arrays.copyOf(segmentStarts, capacity);
+            segmentEnds = Arrays.copyOf(segmentEnds, capacity);
+            segmentTexts = Arrays.copyOf(segmentTexts, capacity);
+        }
+        segmentStarts[segmentCount] = start;
+        segmentEnds[segmentCount] = end;
+        segmentTexts[segmentCount] = text;
+        segmentCount++;
+    }
+
+    public void addWord(String word, double start, double end) {
+        if (wordCount == wordStarts.length) {
+            int capacity = Math.max(64, wordCount * 2);
+            wordStarts = Arrays.copyOf(wordStarts, capacity);
+            wordEnds = Arrays.copyOf(wordEnds, capacity);
+            words = Arrays.copyOf(words, capacity);
+        }
+        words[wordCount] = word;
+        wordStarts[wordCount] = start;
+        wordEnds[wordCount] = end;
+        wordCount++;
+    }
+}
@@ -8,4 +8,5 @@ public class ValidationResult {
     private String errorMessage;
     private double durationSeconds;
     private byte[] audioFile;
+    private byte[] transcriptionAudioFile;  // 16 kHz mono FLAC for Whisper
 }
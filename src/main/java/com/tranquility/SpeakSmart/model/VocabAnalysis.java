@@ -1,31 +1,47 @@
 package com.tranquility.SpeakSmart.model;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 
-@Slf4j
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 public class VocabAnalysis {
-    private String repeatedWords;    // List<Map<String, Object>>
-    private String grammaticalErrors; // List<Map<String, Object>>
-    private String longSentences;  // List<Map<String, Object>>
+    private List<RepeatedWord> repeatedWords;
+    private List<GrammaticalError> grammaticalErrors;
+    private List<LongSentence> longSentences;
     private String modifiedText;
     private String fancyText;
-    private String meanings;
-
-    public VocabAnalysis(JsonNode data) {
-        try {
-            this.repeatedWords = data.get("repeated_words").toString();
-            this.grammaticalErrors = data.get("grammatical_errors").toString();
-            this.longSentences = data.get("long_sentences").toString();
-            this.modifiedText = data.get("modified_text").toString();
-            this.fancyText = data.get("fancy_text").toString();
-            this.meanings = data.get("meanings").toString();
-        } catch (Exception e) {
-            log.error("There was some error is trying to parse llm vocab response: %s %s".formatted(e.getMessage(), data.toString()));
+    private List<WordMeaning> meanings;
+
+    public record RepeatedWord(String word, int count) {
+    }
+
+    public record GrammaticalError(String sentence, String correct, String explanation) {
+    }
+
+    public record LongSentence(String sentence, String suggestion) {
+    }
+
+    public record WordMeaning(String word, String meaning) {
+    }
+
+    /**
+     * Schema of the vocab-analysis completion. Repeated words and long sentences are computed
+     * locally, the LLM only returns suggestions for the sentences it was given.
+     */
+    public record LlmOutput(
+            @JsonProperty("grammatical_errors") List<GrammaticalError> grammaticalErrors,
+            @JsonProperty("long_sentence_suggestions") List<String> longSentenceSuggestions,
+            @JsonProperty("modified_text") String modifiedText,
+            @JsonProperty("fancy_text") String fancyText,
+            @JsonProperty("meanings") List<WordMeaning> meanings) {
+
+        public boolean isComplete() {
+            return grammaticalErrors != null && longSentenceSuggestions != null
+                    && modifiedText != null && fancyText != null && meanings != null;
         }
     }
 }
@@ -0,0 +1,14 @@
+package com.tranquility.SpeakSmart.repository;
+
+import com.tranquility.SpeakSmart.model.AnalysisFeatures;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+public interface AnalysisFeaturesRepository extends MongoRepository<AnalysisFeatures, String> {
+
+    // Cursor-backed, close the stream when done
+    Stream<AnalysisFeatures> streamAllBy();
+}
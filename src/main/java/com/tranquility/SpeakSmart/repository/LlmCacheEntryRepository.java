@@ -0,0 +1,9 @@
+package com.tranquility.SpeakSmart.repository;
+
+import com.tranquility.SpeakSmart.model.LlmCacheEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LlmCacheEntryRepository extends MongoRepository<LlmCacheEntry, String> {
+}
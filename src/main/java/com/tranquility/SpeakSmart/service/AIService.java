@@ -1,9 +1,20 @@
 package com.tranquility.SpeakSmart.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tranquility.SpeakSmart.model.TranscriptionResponse;
+import com.tranquility.SpeakSmart.model.VocabAnalysis;
+import com.tranquility.SpeakSmart.util.LlmUtils;
+import com.tranquility.SpeakSmart.util.WhisperResponseParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -11,19 +22,76 @@ import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+@Slf4j
 @Service
 public class AIService {
 
+    private static final String REPHRASALS_PROMPT = """
+                You are tasked with generating 5 different rephrasals of the provided speech text in the following styles:  
+                1) Fancy and Sophisticated Words.  
+                2) Technical Terms and Jargon.  
+                3) Humorous with Funny Metaphors.  
+                4) Concise and Appropriate Wording.  
+                5) Philosophical and Deep Thinker.  
+                No preamble, only return the JSON output.
+                Output format:
+                {
+                    "fancy_and_sophisticated_words": "string",
+                    "technical_terms_and_jargon": "string",
+                    "humorous_with_funny_metaphors": "string",
+                    "concise_and_appropriate_wording": "string",
+                    "philosophical_and_deep_thinker": "string"
+                }
+                For following speech text:
+                """;
+
+    // Bump when a cached prompt changes so stale completions are not served
+    private static final String VOCAB_PROMPT_VERSION = "v2";
+    private static final String REPHRASALS_PROMPT_VERSION = "v1";
+
+    private static final int MAX_SCHEMA_ATTEMPTS = 2;
+    private static final int CONNECT_TIMEOUT_MS = 5_000;
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @FunctionalInterface
+    public interface TokenListener {
+        void onToken(String token) throws IOException;
+    }
+
     @Value("${groq.api.key}")
     public String apiKey;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${groq.api.base-url:https://api.groq.com/openai/v1}")
+    private String apiBaseUrl;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+
+    private final Map<Integer, RestTemplate> chatRestTemplates = new ConcurrentHashMap<>();
+
+    @Autowired
+    private LlmResponseCache llmResponseCache;
+
+    @Autowired
+    private ModelRouter modelRouter;
 
     // ------------------- Transcription -------------------
-    public Map<String, Object> transcribe(byte[] fileBytes, String fileName) throws Exception {
+    public TranscriptionResponse transcribe(byte[] fileBytes, String fileName) throws Exception {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.MULTIPART_FORM_DATA);
         headers.setBearerAuth(apiKey);
@@ -37,15 +105,31 @@ public class AIService {
         });
         body.add("model", "whisper-large-v3");
         body.add("response_format", "verbose_json");
+        body.add("timestamp_granularities[]", "segment");
+        body.add("timestamp_granularities[]", "word");
+        // Whisper drops disfluencies unless the prompt contains them
+        body.add("prompt", "Umm, let me think like, hmm... Okay, here's what I'm, like, thinking.");
 
         HttpEntity<MultiValueMap<String, Object>> request = new HttpEntity<>(body, headers);
-        ResponseEntity<Map> response = restTemplate.postForEntity("https://api.groq.com/openai/v1/audio/transcriptions", request, Map.class);
-        System.out.println("Transcription: " + response.getBody());
-        return response.getBody();
+        // parse the body as it streams in, verbose_json with word timestamps gets large
+        return restTemplate.execute(apiBaseUrl + "/audio/transcriptions", HttpMethod.POST,
+                restTemplate.httpEntityCallback(request),
+                response -> WhisperResponseParser.parse(response.getBody()));
     }
 
     // ------------------- Public Methods -------------------
-    public String getLlmAnalysis(String transcription) throws Exception {
+    /**
+     * Grammar, rewriting and vocabulary analysis. Repeated words and long sentences are found
+     * locally by {@link com.tranquility.SpeakSmart.util.TextAnalytics}; the model is only asked
+     * for a shorter version of each of the given long sentences. A completion that does not match
+     * the schema is retried a bounded number of times and never cached; after that the best
+     * partial result is returned.
+     */
+    public VocabAnalysis.LlmOutput getLlmAnalysis(String transcription, List<String> longSentences) throws Exception {
+        StringBuilder numberedSentences = new StringBuilder();
+        for (int i = 0; i < longSentences.size(); i++) {
+            numberedSentences.append(i + 1).append(". ").append(longSentences.get(i)).append('\n');
+        }
         String systemMessage = """
                 Generate No Preamble. Assume you are an excellent public speaker coach. 
                 Note:
@@ -53,47 +137,54 @@ public class AIService {
                 - don't change the perspective or meaning of the sentence.
                 - each of the list will be a set (no duplicates).
                 Create a list of:
-                - "repeated_words": list of top 10 repeated words with repetition count (only include meaningful words, no helping or stop words).
                 - "grammatical_errors": list of top 5 grammatical errors with correct sentence & very short explanation (only include grammatical errors) (keep explanation very short and easy to understand).
-                - "long_sentences": list of top 5 long sentences with suggestion (suggestion will be moderately optimized length sentence with concise & appropriate words).
+                - "long_sentence_suggestions": for each numbered long sentence below, in the same order, a moderately optimized length sentence with concise & appropriate words.
                 Generate text:
                 - "modified_text": by optimizing all long sentences, correct grammatical errors, remove repeated words.
                 - "fancy_text": by using fancy & sophisticated words while maintaining conciseness.
                 - "meanings": list of top 5 fancy words used in the "fancy_text" & their meanings in very short and easy to understand language.
                 Output format:
                 {
-                    "repeated_words": [ { "word": "", "count": number } ],
                     "grammatical_errors": [ { "sentence": "", "correct": "",  "explanation": "" } ],
-                    "long_sentences": [ { "sentence": "", "suggestion": "" } ],
+                    "long_sentence_suggestions": [ "" ],
                     "modified_text": "",
                     "fancy_text": "",
                     "meanings": [ { "word" : "", "meaning": "" } ]
                 }
+                Long sentences:
+                %s
                 For following text:
-                """;
-        return callGroqChatAPI(transcription, systemMessage, "qwen/qwen3-32b", 0.6, 4096);
+                """.formatted(numberedSentences.length() > 0 ? numberedSentences : "(none)\n");
+        // the long sentences are part of the prompt, so they are part of the key as well
+        String cacheInput = transcription + "\n" + numberedSentences;
+        String completion = llmResponseCache.getOrLoad("vocab-analysis", VOCAB_PROMPT_VERSION, modelRouter.routeKey("vocab-analysis"), cacheInput,
+                AIService::isCompleteVocabOutput,
+                () -> {
+                    String output = null;
+                    for (int attempt = 1; attempt <= MAX_SCHEMA_ATTEMPTS; attempt++) {
+                        output = callGroqChatAPI("vocab-analysis", transcription, systemMessage, 0.6, 4096);
+                        if (isCompleteVocabOutput(output)) {
+                            break;
+                        }
+                        log.warn("Vocab analysis output does not match the schema (attempt {}/{})", attempt, MAX_SCHEMA_ATTEMPTS);
+                    }
+                    return output;
+                });
+        return LlmUtils.parseJsonFromLlm(completion, VocabAnalysis.LlmOutput.class)
+                .orElseGet(() -> new VocabAnalysis.LlmOutput(null, null, null, null, null));
     }
 
     public String generateRephrasals(String speechText) throws Exception {
-        String systemMessage = """
-                You are tasked with generating 5 different rephrasals of the provided speech text in the following styles:  
-                1) Fancy and Sophisticated Words.  
-                2) Technical Terms and Jargon.  
-                3) Humorous with Funny Metaphors.  
-                4) Concise and Appropriate Wording.  
-                5) Philosophical and Deep Thinker.  
-                No preamble, only return the JSON output.
-                Output format:
-                {
-                    "fancy_and_sophisticated_words": "string",
-                    "technical_terms_and_jargon": "string",
-                    "humorous_with_funny_metaphors": "string",
-                    "concise_and_appropriate_wording": "string",
-                    "philosophical_and_deep_thinker": "string"
-                }
-                For following speech text:
-                """;
-        return callGroqChatAPI(speechText, systemMessage, "qwen/qwen3-32b", 0.6, 4096);
+        return llmResponseCache.getOrLoad("rephrasals", REPHRASALS_PROMPT_VERSION, modelRouter.routeKey("rephrasals"), speechText,
+                AIService::containsJsonObject,
+                () -> callGroqChatAPI("rephrasals", speechText, REPHRASALS_PROMPT, 0.6, 4096));
+    }
+
+    /**
+     * Same as {@link #generateRephrasals(String)} but forwards every token as it is generated
+     */
+    public String streamRephrasals(String speechText, TokenListener listener) throws Exception {
+        return streamGroqChatAPI("rephrasals", speechText, REPHRASALS_PROMPT, 0.6, 4096, listener);
     }
 
     public String generateRandomTopics() throws Exception {
@@ -105,11 +196,22 @@ public class AIService {
                 Return only the JSON output in this format:
                { "topics": ["Topic 1", "Topic 2", "Topic 3", "Topic 4", "Topic 5"] }
                """;
-        return callGroqChatAPI(systemMessage, "", "llama-3.3-70b-versatile", 1.0, 1024);
+        return callGroqChatAPI("topics", systemMessage, "", 1.0, 1024);
     }
 
     public String generateSpeech(String topic) throws Exception {
-        String systemPrompt = """
+        return callGroqChatAPI("speech", speechPrompt(topic), "", 1.0, 1024);
+    }
+
+    /**
+     * Same as {@link #generateSpeech(String)} but forwards every token as it is generated
+     */
+    public String streamSpeech(String topic, TokenListener listener) throws Exception {
+        return streamGroqChatAPI("speech", speechPrompt(topic), "", 1.0, 1024, listener);
+    }
+
+    private String speechPrompt(String topic) {
+        return """
                 Generate a speech of approximately 2 minutes in length on the topic: %s.
                 Write it so that it **sounds like a person is speaking to an audience**—the speaker can go high and low in pitch, show excitement, pause for effect, and express feelings naturally.
                 Keep the language simple and easy to read aloud, not like written content.
@@ -117,7 +219,6 @@ public class AIService {
                 Respond strictly in this JSON format:
                 { "speech": "Your generated speech here." }
             """.formatted(topic);
-        return callGroqChatAPI(systemPrompt, "", "llama-3.3-70b-versatile", 1.0, 1024);
     }
 
     public String generateSlowFastDrill() throws Exception {
@@ -141,7 +242,7 @@ public class AIService {
                 ]
             }
             """;
-        return callGroqChatAPI(systemPrompt, "", "llama-3.3-70b-versatile", 1.0, 1024);
+        return callGroqChatAPI("slow-fast-drill", systemPrompt, "", 1.0, 1024);
     }
 
     public String generateMockInterview() throws Exception {
@@ -169,35 +270,126 @@ public class AIService {
 
             Only return the JSON output. Do not include any preamble, explanations, or additional text.
             """;
-        return callGroqChatAPI(userContent, systemPrompt, "llama-3.3-70b-versatile", 1.0, 1024);
+        return callGroqChatAPI("mock-interview", userContent, systemPrompt, 1.0, 1024);
     }
 
     // ------------------- Reusable Helper -------------------
-    private String callGroqChatAPI(String userMessage, String systemMessage, String model,
+    /**
+     * Chat calls get a read timeout per task budget so a stalled model fails over instead of
+     * holding the request. The timeout is what is left of the call's deadline, at least
+     * {@link ModelRouter#MIN_ATTEMPT_MS}, rounded down to whole seconds so few templates are kept.
+     */
+    private RestTemplate chatRestTemplate(int timeoutMs) {
+        return chatRestTemplates.computeIfAbsent(timeoutMs / 1000 * 1000, timeout -> restTemplateBuilder
+                .requestFactoryBuilder(ClientHttpRequestFactoryBuilder.simple())
+                .connectTimeout(Duration.ofMillis(Math.min(timeout, CONNECT_TIMEOUT_MS)))
+                .readTimeout(Duration.ofMillis(timeout))
+                .build());
+    }
+
+    private Map<String, Object> chatRequestBody(String userMessage, String systemMessage, String model,
+                                                double temperature, int maxTokens, boolean stream) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+        requestBody.put("messages", List.of(
+                Map.of("role", "system", "content", systemMessage),
+                Map.of("role", "user", "content", userMessage)
+        ));
+        requestBody.put("temperature", temperature);
+        requestBody.put("max_completion_tokens", maxTokens);
+        requestBody.put("top_p", 0.95);
+        if (stream) {
+            requestBody.put("stream", true);
+        }
+        return requestBody;
+    }
+
+    /**
+     * Chat completion for a task, on the model picked by {@link ModelRouter} with failover
+     */
+    private String callGroqChatAPI(String task, String userMessage, String systemMessage,
                                    double temperature, int maxTokens) throws Exception {
+        return modelRouter.execute(task, (model, timeoutMs) ->
+                callGroqChatAPI(userMessage, systemMessage, model, temperature, maxTokens, timeoutMs));
+    }
+
+    private String callGroqChatAPI(String userMessage, String systemMessage, String model,
+                                   double temperature, int maxTokens, int timeoutMs) throws Exception {
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setBearerAuth(apiKey);
 
-        Map<String, Object> requestBody = Map.of(
-                "model", model,
-                "messages", List.of(
-                        Map.of("role", "system", "content", systemMessage),
-                        Map.of("role", "user", "content", userMessage)
-                ),
-                "temperature", temperature,
-                "max_completion_tokens", maxTokens,
-                "top_p", 0.95
-        );
+        Map<String, Object> requestBody = chatRequestBody(userMessage, systemMessage, model, temperature, maxTokens, false);
 
         HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-        ResponseEntity<Map> response = restTemplate.postForEntity("https://api.groq.com/openai/v1/chat/completions", request, Map.class);
+        ResponseEntity<Map> response = chatRestTemplate(timeoutMs).postForEntity(apiBaseUrl + "/chat/completions", request, Map.class);
 
         Map<String, Object> choice = ((List<Map<String, Object>>) response.getBody().get("choices")).get(0);
         Map<String, Object> message = (Map<String, Object>) choice.get("message");
 
         return (String) message.get("content");
     }
-}
 
+    /**
+     * Streaming chat completion for a task. Fails over to the next model only while nothing
+     * has been forwarded to the listener yet.
+     */
+    private String streamGroqChatAPI(String task, String userMessage, String systemMessage,
+                                     double temperature, int maxTokens, TokenListener listener) throws Exception {
+        AtomicBoolean started = new AtomicBoolean();
+        TokenListener tracking = token -> {
+            started.set(true);
+            listener.onToken(token);
+        };
+        return modelRouter.execute(task, (model, timeoutMs) ->
+                        streamGroqChatAPI(userMessage, systemMessage, model, temperature, maxTokens, timeoutMs, tracking),
+                e -> !started.get());
+    }
+
+    private String streamGroqChatAPI(String userMessage, String systemMessage, String model,
+                                     double temperature, int maxTokens, int timeoutMs,
+                                     TokenListener listener) throws Exception {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+        headers.setBearerAuth(apiKey);
+
+        Map<String, Object> requestBody = chatRequestBody(userMessage, systemMessage, model, temperature, maxTokens, true);
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
+
+        RestTemplate template = chatRestTemplate(timeoutMs);
+        return template.execute(apiBaseUrl + "/chat/completions", HttpMethod.POST, template.httpEntityCallback(request), response -> {
+            StringBuilder completion = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.startsWith("data:")) {
+                        continue;
+                    }
+                    String data = line.substring(5).trim();
+                    if (data.equals("[DONE]")) {
+                        break;
+                    }
+                    JsonNode content = mapper.readTree(data).path("choices").path(0).path("delta").path("content");
+                    if (content.isTextual() && !content.asText().isEmpty()) {
+                        completion.append(content.asText());
+                        listener.onToken(content.asText());
+                    }
+                }
+            }
+            return completion.toString();
+        });
+    }
+
+    private static boolean isCompleteVocabOutput(String completion) {
+        return LlmUtils.parseJsonFromLlm(completion, VocabAnalysis.LlmOutput.class)
+                .map(VocabAnalysis.LlmOutput::isComplete)
+                .orElse(false);
+    }
+
+    private static boolean containsJsonObject(String completion) {
+        return !LlmUtils.extractJsonFromLlm(completion).isEmpty();
+    }
+}
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tranquility.SpeakSmart.model.AnalysisRequest;
 import com.tranquility.SpeakSmart.model.AnalysisResult;
 import com.tranquility.SpeakSmart.repository.AnalysisRequestRepository;
+import com.tranquility.SpeakSmart.service.PipelineMetrics.Stage;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
@@ -44,38 +47,64 @@ public class AsyncAudioProcessingService {
     @Autowired
     private ObjectMapper objectMapper;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    private RestTemplate restTemplate;
 
     private static final int MAX_RETRIES = 3;
     private static final int PROCESSING_TIMEOUT_SECONDS = 180;  // 30 mins
 
     /**
-     * Process audio analysis asynchronously
+     * Process audio analysis asynchronously, traced as one {@code speaksmart.analysis} span with
+     * the pipeline stages and their outbound calls beneath it
      */
     @Async("audioProcessingTaskExecutor")
     public CompletableFuture<Void> processAudioAnalysisAsync(String requestId) {
         log.info("Starting async audio processing for request: {}", requestId);
+        PipelineMetrics.Job job = null;
 
+        Observation observation = Observation.createNotStarted("speaksmart.analysis", observationRegistry)
+                .contextualName("analysis")
+                .highCardinalityKeyValue("request.id", requestId)
+                .start();
+        Observation.Scope scope = observation.openScope();
         try {
             AnalysisRequest request = analysisRequestRepository.findById(requestId)
                     .orElseThrow(() -> new IllegalArgumentException("Analysis request not found: " + requestId));
+            job = pipelineMetrics.startJob(requestId, request.getAudioDurationSeconds());
 
             // Mark as processing
             request.markAsProcessing();
             analysisRequestRepository.save(request);
 
             // Download audio file from Cloudinary
-            byte[] audioData = downloadAudioFile(request.getAudioUrl());    // this might become issue, check later. As of now we are loading whole file in memory.
+            byte[] audioData = job.record(Stage.DOWNLOAD, () -> downloadAudioFile(request.getAudioUrl()));    // this might become issue, check later. As of now we are loading whole file in memory.
+
+            // Compact 16 kHz copy for Whisper, older requests only have the WAV
+            byte[] transcriptionAudio = null;
+            if (request.getTranscriptionAudioUrl() != null) {
+                try {
+                    transcriptionAudio = job.record(Stage.DOWNLOAD, () -> downloadAudioFile(request.getTranscriptionAudioUrl()));
+                } catch (IOException e) {
+                    log.warn("Could not download transcription audio for request {}, using full WAV", requestId);
+                }
+            }
 
             // Create temporary multipart file for processing
             MultipartFile audioFile = createMultipartFile(audioData, request.getFileName(), request.getFileContentType());
 
             // Use real audio analysis service instead of mock
-            AnalysisResult result = audioAnalysisService.analyzeAudio(audioFile, request);
+            AnalysisResult result = audioAnalysisService.analyzeAudio(audioFile, transcriptionAudio, request, job);
 
             // Save analysis result as JSON to Cloudinary
             String analysisJson = objectMapper.writeValueAsString(result);
-            Map<String, Object> uploadResult = uploadAnalysisResult(analysisJson, request.getId());
+            Map<String, Object> uploadResult = job.record(Stage.RESULT_UPLOAD, analysisJson.length(),
+                    () -> uploadAnalysisResult(analysisJson, request.getId()));
 
             // Update request with results
             String analysisResultUrl = (String) uploadResult.get("secure_url");
@@ -85,15 +114,25 @@ public class AsyncAudioProcessingService {
 
             // Set quick results for fast API responses
             request.setQuickResults(createQuickResults(result));
+            request.setScoringVersion(result.getScoringVersion());
+            request.setResultScoringVersion(result.getScoringVersion());
 
             analysisRequestRepository.save(request);
             userService.updateAnalysisPoints(request.getUserId(), request.getCompletedAt());
 
+            job.finish(true);
             log.info("Audio processing completed successfully for request: {}", requestId);
 
         } catch (Exception e) {
             log.error("Error processing audio for request: {}", requestId, e);
+            observation.error(e);
+            if (job != null) {
+                job.finish(false);
+            }
             handleProcessingError(requestId, e.getMessage());
+        } finally {
+            scope.close();
+            observation.stop();
         }
 
         return CompletableFuture.completedFuture(null);
@@ -227,6 +266,7 @@ public class AsyncAudioProcessingService {
 
         // Overall Score
         quickResults.put("overall_score", result.getOverallScore());
+        quickResults.put("scoring_version", result.getScoringVersion());
 
         // Audio Metadata
         if (result.getAudioMetadata() != null) {
@@ -25,9 +25,9 @@ public class ChartGenerationService {
     private CloudinaryService cloudinaryService;
 
     /**
-     * Generate and upload speech rate chart
+     * Generate speech rate chart
      */
-    public String generateSpeechRateChart(AnalysisResult.SpeechRateAnalysis speechRate) {
+    public XYChart generateSpeechRateChart(AnalysisResult.SpeechRateAnalysis speechRate) {
         try {
             if (speechRate.getSegments() == null || speechRate.getSegments().isEmpty()) {
                 log.warn("No segments available for speech rate chart generation");
@@ -36,9 +36,19 @@ public class ChartGenerationService {
 
             List<AnalysisResult.SpeechSegment> segments = speechRate.getSegments();
 
-            // Create time series data
-            double[] timeData = segments.stream().mapToDouble(AnalysisResult.SpeechSegment::getStart).toArray();
-            double[] wpmData = segments.stream().mapToDouble(AnalysisResult.SpeechSegment::getSpeechRate).toArray();
+            // Create time series data, preferring the sliding-window series from word timestamps
+            double[] timeData;
+            double[] wpmData;
+            if (speechRate.getWindowedWpm() != null && speechRate.getWindowedWpm().length > 1) {
+                wpmData = speechRate.getWindowedWpm();
+                timeData = new double[wpmData.length];
+                for (int i = 0; i < timeData.length; i++) {
+                    timeData[i] = i * speechRate.getStepSeconds();
+                }
+            } else {
+                timeData = segments.stream().mapToDouble(AnalysisResult.SpeechSegment::getStart).toArray();
+                wpmData = segments.stream().mapToDouble(AnalysisResult.SpeechSegment::getSpeechRate).toArray();
+            }
 
             // Create chart
             XYChart chart = new XYChartBuilder()
@@ -65,7 +75,7 @@ public class ChartGenerationService {
             avgSeries.setMarkerColor(Color.RED);
             avgSeries.setLineColor(Color.RED);
 
-            return uploadChartToCloudinary(chart, "speech_rate_chart_" + System.currentTimeMillis());
+            return chart;
 
         } catch (Exception e) {
             log.error("Error generating speech rate chart", e);
@@ -168,21 +178,30 @@ public class ChartGenerationService {
      */
     public String uploadChartToCloudinary(XYChart chart, String filename) {
         try {
-            // Convert chart to bytes
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            BitmapEncoder.saveBitmap(chart, outputStream, BitmapEncoder.BitmapFormat.PNG);
-            byte[] chartBytes = outputStream.toByteArray();
-
-            // Upload to Cloudinary
-            var uploadResult = cloudinaryService.uploadFile(chartBytes, filename + ".png", "image/png", "charts");
-            return (String) uploadResult.get("secure_url");
-
+            return uploadChartPng(renderChartPng(chart), filename);
         } catch (Exception e) {
             log.error("Error uploading chart to Cloudinary", e);
             return null;
         }
     }
 
+    /**
+     * Render chart to PNG bytes
+     */
+    public byte[] renderChartPng(XYChart chart) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        BitmapEncoder.saveBitmap(chart, outputStream, BitmapEncoder.BitmapFormat.PNG);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Upload rendered chart to Cloudinary and return URL
+     */
+    public String uploadChartPng(byte[] png, String filename) throws IOException {
+        var uploadResult = cloudinaryService.uploadFile(png, filename + ".png", "image/png", "charts");
+        return (String) uploadResult.get("secure_url");
+    }
+
     /**
      * Create a MultipartFile from byte array
      */
@@ -14,24 +14,34 @@ import org.springframework.web.multipart.MultipartFile;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
 @Service
 public class CloudinaryService {
 
     private static final Logger log = LoggerFactory.getLogger(CloudinaryService.class);
 
     private final Cloudinary cloudinary;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+    private final ObservationRegistry observationRegistry;
 
     public CloudinaryService(
+            RestTemplate restTemplate,
+            ObservationRegistry observationRegistry,
             @Value("${cloudinary.cloud-name}") String cloudName,
             @Value("${cloudinary.api-key}") String apiKey,
-            @Value("${cloudinary.api-secret}") String apiSecret) {
+            @Value("${cloudinary.api-secret}") String apiSecret,
+            @Value("${cloudinary.upload-prefix:https://api.cloudinary.com}") String uploadPrefix) {
 
         this.cloudinary = new Cloudinary(ObjectUtils.asMap(
                 "cloud_name", cloudName,
                 "api_key", apiKey,
-                "api_secret", apiSecret
+                "api_secret", apiSecret,
+                "upload_prefix", uploadPrefix
         ));
+        this.restTemplate = restTemplate;
+        this.observationRegistry = observationRegistry;
     }
 
     /**
@@ -50,7 +60,7 @@ public class CloudinaryService {
                     "overwrite", false
             );
 
-            Map<String, Object> result = cloudinary.uploader().upload(file, uploadParams);
+            Map<String, Object> result = observe("upload", uploadParams, () -> cloudinary.uploader().upload(file, uploadParams));
             log.info("File uploaded successfully to Cloudinary: {}", result.get("secure_url"));
             return result;
 
@@ -70,7 +80,7 @@ public class CloudinaryService {
                     "overwrite", false
             );
 
-            Map<String, Object> result = cloudinary.uploader().upload(file, uploadParams);
+            Map<String, Object> result = observe("upload", uploadParams, () -> cloudinary.uploader().upload(file, uploadParams));
             log.info("File uploaded successfully to Cloudinary: {}", result.get("secure_url"));
             return result;
 
@@ -91,7 +101,7 @@ public class CloudinaryService {
                     "overwrite", false
             );
 
-            Map<String, Object> result = cloudinary.uploader().upload(file, uploadParams);
+            Map<String, Object> result = observe("upload", uploadParams, () -> cloudinary.uploader().upload(file, uploadParams));
             log.info("File uploaded successfully to Cloudinary: {}", result.get("secure_url"));
             return result;
 
@@ -123,8 +133,8 @@ public class CloudinaryService {
      */
     public Map<String, Object> deleteFile(String publicId, String resourceType) throws IOException {
         try {
-            Map<String, Object> result = cloudinary.uploader().destroy(publicId,
-                    ObjectUtils.asMap("resource_type", resourceType));
+            Map<String, Object> params = ObjectUtils.asMap("resource_type", resourceType);
+            Map<String, Object> result = observe("destroy", params, () -> cloudinary.uploader().destroy(publicId, params));
             log.info("File deleted successfully from Cloudinary: {}", publicId);
             return result;
         } catch (IOException e) {
@@ -190,6 +200,19 @@ public class CloudinaryService {
         }
     }
 
+    /**
+     * The Cloudinary SDK brings its own HTTP client, so its calls are observed here rather than
+     * by the RestTemplate instrumentation
+     */
+    private Map<String, Object> observe(String operation, Map<String, Object> params,
+                                        Observation.CheckedCallable<Map<String, Object>, IOException> call) throws IOException {
+        return Observation.createNotStarted("cloudinary.request", observationRegistry)
+                .contextualName("cloudinary " + operation)
+                .lowCardinalityKeyValue("operation", operation)
+                .lowCardinalityKeyValue("resource_type", String.valueOf(params.get("resource_type")))
+                .observeChecked(call);
+    }
+
     /**
      * Determine resource type based on file content type
      */
@@ -0,0 +1,141 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.tranquility.SpeakSmart.util.LlmUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps a background-refilled pool of generic LLM content (topics, drills, mock
+ * interviews) so the generation endpoints can answer from memory instead of
+ * waiting on a live LLM round trip.
+ * <p>
+ * Items are handed out once and removed from the pool, so no user ever sees the
+ * same item twice. When the pool drops to the low watermark a refill up to the
+ * high watermark is scheduled; when it is empty the caller falls back to a live call.
+ */
+@Slf4j
+@Service
+public class ContentPoolService {
+
+    public enum ContentType {
+        RANDOM_TOPICS,
+        SLOW_FAST_DRILL,
+        MOCK_INTERVIEW
+    }
+
+    @FunctionalInterface
+    private interface Generator {
+        String generate() throws Exception;
+    }
+
+    private final Map<ContentType, Generator> generators = new EnumMap<>(ContentType.class);
+    private final Map<ContentType, Queue<JsonNode>> pools = new EnumMap<>(ContentType.class);
+    private final Map<ContentType, AtomicInteger> sizes = new EnumMap<>(ContentType.class);
+    private final Map<ContentType, AtomicBoolean> refilling = new EnumMap<>(ContentType.class);
+
+    @Autowired
+    @Qualifier("contentPoolTaskExecutor")
+    private Executor refillExecutor;
+
+    @Value("${content-pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${content-pool.low-watermark:5}")
+    private int lowWatermark;
+
+    @Value("${content-pool.high-watermark:20}")
+    private int highWatermark;
+
+    public ContentPoolService(AIService aiService) {
+        generators.put(ContentType.RANDOM_TOPICS, aiService::generateRandomTopics);
+        generators.put(ContentType.SLOW_FAST_DRILL, aiService::generateSlowFastDrill);
+        generators.put(ContentType.MOCK_INTERVIEW, aiService::generateMockInterview);
+
+        for (ContentType type : ContentType.values()) {
+            pools.put(type, new ConcurrentLinkedQueue<>());
+            sizes.put(type, new AtomicInteger());
+            refilling.put(type, new AtomicBoolean());
+        }
+    }
+
+    /**
+     * Take the next pooled item, falling back to a live LLM call when the pool is empty
+     */
+    public JsonNode take(ContentType type) throws Exception {
+        JsonNode item = pools.get(type).poll();
+        if (item != null) {
+            int remaining = sizes.get(type).decrementAndGet();
+            if (remaining <= lowWatermark) {
+                scheduleRefill(type);
+            }
+            return item;
+        }
+
+        log.info("Content pool empty for {}, falling back to live generation", type);
+        scheduleRefill(type);
+        return LlmUtils.extractJsonFromLlm(generators.get(type).generate());
+    }
+
+    public int size(ContentType type) {
+        return sizes.get(type).get();
+    }
+
+    /**
+     * Periodically top up every pool that is at or below its low watermark
+     */
+    @Scheduled(initialDelayString = "${content-pool.initial-delay-ms:10000}",
+            fixedDelayString = "${content-pool.refill-interval-ms:60000}")
+    public void refillAll() {
+        for (ContentType type : ContentType.values()) {
+            if (sizes.get(type).get() <= lowWatermark) {
+                scheduleRefill(type);
+            }
+        }
+    }
+
+    private void scheduleRefill(ContentType type) {
+        if (!enabled || !refilling.get(type).compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refillExecutor.execute(() -> refill(type));
+        } catch (Exception e) {
+            refilling.get(type).set(false);
+            log.warn("Could not schedule refill for content pool {}: {}", type, e.getMessage());
+        }
+    }
+
+    private void refill(ContentType type) {
+        int added = 0;
+        try {
+            while (sizes.get(type).get() < highWatermark) {
+                JsonNode item = LlmUtils.extractJsonFromLlm(generators.get(type).generate());
+                if (item.isEmpty()) {
+                    log.warn("Discarding empty LLM output while refilling content pool {}", type);
+                    break;
+                }
+                pools.get(type).offer(item);
+                sizes.get(type).incrementAndGet();
+                added++;
+            }
+        } catch (Exception e) {
+            log.warn("Refill of content pool {} stopped after {} items: {}", type, added, e.getMessage());
+        } finally {
+            refilling.get(type).set(false);
+        }
+        log.info("Content pool {} refilled with {} items (size {})", type, added, sizes.get(type).get());
+    }
+}
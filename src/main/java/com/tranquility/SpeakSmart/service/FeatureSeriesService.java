@@ -0,0 +1,191 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.tranquility.SpeakSmart.model.AnalysisFeatures;
+import com.tranquility.SpeakSmart.repository.AnalysisFeaturesRepository;
+import com.tranquility.SpeakSmart.util.FeaturePyramid;
+import com.tranquility.SpeakSmart.util.FeatureVectorCodec;
+import com.tranquility.SpeakSmart.util.FeatureVectorCodec.Series;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Windows of an analysis' stored pitch and energy series, reduced to at most a given number of
+ * min/max/mean points for zoomable charts. Short windows are served from the samples, read block
+ * by block; longer ones from the coarsest {@link FeaturePyramid} level that still has finer
+ * buckets than the answer, merged down to the requested resolution.
+ */
+@Slf4j
+@Service
+public class FeatureSeriesService {
+
+    @Autowired
+    private AnalysisFeaturesRepository analysisFeaturesRepository;
+
+    @Value("${analysis-series.max-points:2000}")
+    private int maxPointsLimit;
+
+    /**
+     * @param time start of each point's bucket, or the sample time at full resolution
+     */
+    public record SeriesWindow(Series series, double start, double end, double resolutionSeconds,
+                               double[] time, float[] min, float[] max, float[] mean) {
+    }
+
+    /**
+     * @param end       window end in seconds, the whole recording when null
+     * @param maxPoints capped by {@code analysis-series.max-points}
+     * @return empty when the analysis has no stored features in a format with series (2 or later)
+     * @throws IllegalArgumentException for an empty window or fewer than one point
+     */
+    public Optional<SeriesWindow> window(String requestId, Series series, double start, Double end, int maxPoints) throws IOException {
+        Optional<AnalysisFeatures> stored = analysisFeaturesRepository.findById(requestId);
+        if (stored.isEmpty() || stored.get().getFormatVersion() < 2) {
+            return Optional.empty();
+        }
+        FeatureVectorCodec.Reader reader = new FeatureVectorCodec.Reader(stored.get().getData());
+        double windowEnd = end != null ? end : reader.scalars().getDurationSeconds();
+        if (maxPoints < 1 || start < 0 || windowEnd <= start) {
+            throw new IllegalArgumentException("Invalid window [" + start + ", " + windowEnd + "] with " + maxPoints + " points");
+        }
+        maxPoints = Math.min(maxPoints, maxPointsLimit);
+
+        double step = reader.frameStepSeconds();
+        long firstFrame = (long) Math.ceil(start / step - 1e-6);
+        long lastFrame = (long) Math.floor(windowEnd / step + 1e-6);
+        long frames = lastFrame - firstFrame + 1;
+        if (frames <= maxPoints) {
+            return Optional.of(samples(reader, series, start, windowEnd, (int) Math.max(frames, 0)));
+        }
+
+        double bucketSeconds = (windowEnd - start) / maxPoints;
+        Buckets buckets = new Buckets(start, bucketSeconds, maxPoints);
+        FeaturePyramid.Level level = pick(pyramid(stored.get(), reader).levels(series), step, bucketSeconds);
+        if (level == null) {
+            readSamples(reader, series, firstFrame, lastFrame, buckets);
+        } else {
+            // level buckets wholly inside the window; the partial ones at its edges are read from the samples
+            int bucketFrames = level.bucketFrames();
+            long from = Math.floorDiv(firstFrame + bucketFrames - 1, bucketFrames);
+            long to = Math.floorDiv(lastFrame + 1, bucketFrames) - 1;
+            if (from > to) {
+                readSamples(reader, series, firstFrame, lastFrame, buckets);
+            } else {
+                readSamples(reader, series, firstFrame, from * bucketFrames - 1, buckets);
+                int i = Arrays.binarySearch(level.buckets(), from);
+                for (i = i >= 0 ? i : -i - 1; i < level.size() && level.buckets()[i] <= to; i++) {
+                    buckets.add(level.buckets()[i] * bucketFrames * step, level.counts()[i],
+                            level.min()[i], level.max()[i], level.mean()[i]);
+                }
+                readSamples(reader, series, (to + 1) * bucketFrames, lastFrame, buckets);
+            }
+        }
+        return Optional.of(buckets.window(series, windowEnd, bucketSeconds));
+    }
+
+    // Every sample of the window as its own point, min = max = mean
+    private static SeriesWindow samples(FeatureVectorCodec.Reader reader, Series series, double start, double end,
+                                        int frames) throws IOException {
+        double[] times = new double[frames];
+        float[] values = new float[frames];
+        int[] count = {0};
+        reader.read(series, start, end, (time, value) -> {
+            if (count[0] < frames) {
+                times[count[0]] = time;
+                values[count[0]++] = value;
+            }
+        });
+        double[] sampleTimes = Arrays.copyOf(times, count[0]);
+        float[] sampleValues = Arrays.copyOf(values, count[0]);
+        return new SeriesWindow(series, start, end, reader.frameStepSeconds(), sampleTimes, sampleValues, sampleValues, sampleValues);
+    }
+
+    // Frames firstFrame to lastFrame inclusive into the buckets, nothing when the range is empty
+    private static void readSamples(FeatureVectorCodec.Reader reader, Series series, long firstFrame, long lastFrame,
+                                    Buckets buckets) throws IOException {
+        if (firstFrame <= lastFrame) {
+            double step = reader.frameStepSeconds();
+            reader.read(series, firstFrame * step, lastFrame * step, (time, value) -> buckets.add(time, 1, value, value, value));
+        }
+    }
+
+    // Coarsest level whose buckets are no wider than the answer's, null when only samples are fine enough
+    private static FeaturePyramid.Level pick(List<FeaturePyramid.Level> levels, double step, double bucketSeconds) {
+        FeaturePyramid.Level picked = null;
+        for (FeaturePyramid.Level level : levels) {
+            if (level.bucketFrames() * step <= bucketSeconds) {
+                picked = level;
+            }
+        }
+        return picked;
+    }
+
+    // Analyses stored before pyramids were kept get theirs built on the fly
+    private FeaturePyramid pyramid(AnalysisFeatures stored, FeatureVectorCodec.Reader reader) throws IOException {
+        if (stored.getPyramid() != null) {
+            return FeaturePyramid.decode(stored.getPyramid());
+        }
+        log.debug("No stored feature pyramid for request: {}, building it", stored.getRequestId());
+        return FeaturePyramid.build(reader);
+    }
+
+    // Merges samples or pyramid buckets into a fixed number of equal-width time buckets
+    private static final class Buckets {
+
+        private final double start;
+        private final double width;
+        private final double[] time;
+        private final int[] counts;
+        private final float[] min;
+        private final float[] max;
+        private final double[] sum;
+
+        Buckets(double start, double width, int capacity) {
+            this.start = start;
+            this.width = width;
+            time = new double[capacity];
+            counts = new int[capacity];
+            min = new float[capacity];
+            max = new float[capacity];
+            sum = new double[capacity];
+        }
+
+        void add(double at, int count, float min, float max, float mean) {
+            int i = Math.min(time.length - 1, (int) ((at - start) / width));
+            if (counts[i] == 0) {
+                time[i] = start + i * width;
+                this.min[i] = min;
+                this.max[i] = max;
+            }
+            counts[i] += count;
+            this.min[i] = Math.min(this.min[i], min);
+            this.max[i] = Math.max(this.max[i], max);
+            sum[i] += (double) mean * count;
+        }
+
+        SeriesWindow window(Series series, double end, double resolutionSeconds) {
+            int points = 0;
+            for (int count : counts) {
+                if (count > 0) points++;
+            }
+            double[] times = new double[points];
+            float[] mins = new float[points];
+            float[] maxes = new float[points];
+            float[] means = new float[points];
+            for (int i = 0, p = 0; i < counts.length; i++) {
+                if (counts[i] == 0) continue;
+                times[p] = time[i];
+                mins[p] = min[i];
+                maxes[p] = max[i];
+                means[p++] = (float) (sum[i] / counts[i]);
+            }
+            return new SeriesWindow(series, start, end, resolutionSeconds, times, mins, maxes, means);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.tranquility.SpeakSmart.model.LlmCacheEntry;
+import com.tranquility.SpeakSmart.repository.LlmCacheEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Content-addressed cache for LLM completions that are pure functions of
+ * (task, prompt version, model, input text).
+ * <p>
+ * Keys hash the normalized input, so re-processing, retries and the same script read
+ * by many users all hit the same entry. Entries live in a size-bounded LRU with a TTL
+ * and can optionally be persisted to Mongo to be shared across nodes. Identical
+ * concurrent calls are coalesced into one upstream request.
+ */
+@Slf4j
+@Service
+public class LlmResponseCache {
+
+    @FunctionalInterface
+    public interface Loader {
+        String load() throws Exception;
+    }
+
+    private record Entry(String response, Instant expiresAt) {
+    }
+
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Entry> entries;
+
+    @Autowired
+    private LlmCacheEntryRepository cacheEntryRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${llm-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${llm-cache.mongo.enabled:false}")
+    private boolean mongoEnabled;
+
+    private final Duration ttl;
+
+    public LlmResponseCache(@Value("${llm-cache.max-entries:1000}") int maxEntries,
+                            @Value("${llm-cache.ttl-hours:168}") long ttlHours) {
+        this.ttl = Duration.ofHours(ttlHours);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Auto index creation is off, so the TTL index on {@code expiresAt} is created here; without
+     * it expired entries would only be skipped, never deleted
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        if (!enabled || !mongoEnabled) {
+            return;
+        }
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(LlmCacheEntry.class);
+            new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                    .resolveIndexFor(LlmCacheEntry.class)
+                    .forEach(indexOps::createIndex);
+        } catch (Exception e) {
+            log.warn("Could not create LLM cache indexes in Mongo: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Return the cached completion for this input or compute it once, sharing the result with
+     * any concurrent caller asking for the same key. Only results accepted by {@code cacheable}
+     * are stored.
+     */
+    public String getOrLoad(String task, String promptVersion, String model, String input,
+                            Predicate<String> cacheable, Loader loader) throws Exception {
+        if (!enabled) {
+            return loader.load();
+        }
+
+        String key = cacheKey(task, promptVersion, model, input);
+        Optional<String> cached = lookup(key);
+        if (cached.isPresent()) {
+            log.debug("LLM cache hit for {}", key);
+            return cached.get();
+        }
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            log.debug("Joining in-flight LLM call for {}", key);
+            return await(existing);
+        }
+
+        try {
+            // a call for the same key may have finished between the lookup and claiming the slot
+            Optional<String> completed = lookup(key);
+            if (completed.isPresent()) {
+                mine.complete(completed.get());
+                return completed.get();
+            }
+
+            String response = loader.load();
+            if (response != null && cacheable.test(response)) {
+                store(key, response);
+            }
+            mine.complete(response);
+            return response;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Optional<String> lookup(String key) {
+        Instant now = Instant.now();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt().isAfter(now)) {
+                    return Optional.of(entry.response());
+                }
+                entries.remove(key);
+            }
+        }
+
+        if (!mongoEnabled) {
+            return Optional.empty();
+        }
+        try {
+            Optional<LlmCacheEntry> persisted = cacheEntryRepository.findById(key)
+                    .filter(e -> e.getExpiresAt() != null && e.getExpiresAt().isAfter(now));
+            persisted.ifPresent(e -> {
+                synchronized (entries) {
+                    entries.put(key, new Entry(e.getResponse(), e.getExpiresAt()));
+                }
+            });
+            return persisted.map(LlmCacheEntry::getResponse);
+        } catch (Exception e) {
+            log.warn("LLM cache lookup in Mongo failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void store(String key, String response) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        synchronized (entries) {
+            entries.put(key, new Entry(response, expiresAt));
+        }
+
+        if (mongoEnabled) {
+            try {
+                cacheEntryRepository.save(new LlmCacheEntry(key, response, now, expiresAt));
+            } catch (Exception e) {
+                log.warn("LLM cache write to Mongo failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private String await(CompletableFuture<String> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    static String cacheKey(String task, String promptVersion, String model, String input) {
+        return task + ":" + promptVersion + ":" + model + ":" + sha256(normalize(input));
+    }
+
+    /**
+     * Unicode-normalize and collapse whitespace so trivially different transcripts share a key. Case
+     * is kept, rephrasal and grammar output depends on it.
+     */
+    static String normalize(String input) {
+        if (input == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(input, Normalizer.Form.NFKC);
+        return normalized.trim().replaceAll("\\s+", " ");
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
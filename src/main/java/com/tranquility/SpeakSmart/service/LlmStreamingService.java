@@ -0,0 +1,68 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.tranquility.SpeakSmart.util.LlmUtils;
+import com.tranquility.SpeakSmart.util.StreamingJsonFieldParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Relays streamed LLM completions to clients over Server-Sent Events.
+ * <p>
+ * Each decoded chunk of a JSON string field is sent as a {@code field} event
+ * ({@code {"field": ..., "text": ...}}) while the model is still generating; a
+ * final {@code done} event carries the complete parsed JSON.
+ */
+@Slf4j
+@Service
+public class LlmStreamingService {
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    private SpeechPrefetchService speechPrefetchService;
+
+    @FunctionalInterface
+    private interface StreamingCall {
+        String run(AIService.TokenListener listener) throws Exception;
+    }
+
+    @Async("llmStreamingTaskExecutor")
+    public void streamSpeech(String user, String topic, SseEmitter emitter) {
+        // a speculated speech is relayed in one piece, otherwise the speech is streamed live
+        relay(emitter, listener -> {
+            Optional<String> speculated = speechPrefetchService.takeSpeculated(user, topic);
+            if (speculated.isEmpty()) {
+                return aiService.streamSpeech(topic, listener);
+            }
+            listener.onToken(speculated.get());
+            return speculated.get();
+        });
+    }
+
+    @Async("llmStreamingTaskExecutor")
+    public void streamRephrasals(String speech, SseEmitter emitter) {
+        relay(emitter, listener -> aiService.streamRephrasals(speech, listener));
+    }
+
+    private void relay(SseEmitter emitter, StreamingCall call) {
+        try {
+            StreamingJsonFieldParser parser = new StreamingJsonFieldParser((field, text) ->
+                    emitter.send(SseEmitter.event().name("field").data(Map.of("field", field, "text", text))));
+
+            String completion = call.run(parser::feed);
+
+            emitter.send(SseEmitter.event().name("done").data(LlmUtils.extractJsonFromLlm(completion)));
+            emitter.complete();
+        } catch (Exception e) {
+            log.error("Error while streaming LLM response", e);
+            emitter.completeWithError(e);
+        }
+    }
+}
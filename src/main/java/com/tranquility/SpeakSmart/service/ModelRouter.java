@@ -0,0 +1,207 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.tranquility.SpeakSmart.config.LlmRoutingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Picks the model for each LLM task from its configured candidates, using live latency and
+ * error rate per task and model.
+ * <p>
+ * Candidates whose recent p95 is within the task's latency budget and whose error rate is
+ * acceptable are tried in configured order; the others are moved to the back, best first.
+ * An attempt that fails with a 5xx, 429, I/O error or timeout fails over to the next candidate;
+ * other errors, such as a rejected request, are the caller's and are rethrown without counting
+ * against the model. All attempts share the task's timeout. Samples expire, so a demoted model
+ * is tried again once its bad period has aged out.
+ */
+@Slf4j
+@Service
+public class ModelRouter {
+
+    @FunctionalInterface
+    public interface ModelCall<T> {
+        T call(String model, int timeoutMs) throws Exception;
+    }
+
+    public record ModelHealth(String model, int samples, double errorRate, long p50Ms, long p95Ms) {
+    }
+
+    /**
+     * Shortest time an attempt is started with, timeouts are passed on in whole seconds
+     */
+    public static final int MIN_ATTEMPT_MS = 1000;
+
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+    @Autowired
+    private LlmRoutingProperties properties;
+
+    public <T> T execute(String task, ModelCall<T> call) throws Exception {
+        return execute(task, call, e -> true);
+    }
+
+    /**
+     * Run the call against the best candidate for the task, failing over to the next one on a
+     * retryable error that {@code failover} also accepts. Each attempt gets the time left of the
+     * task's timeout; none is started with less than {@link #MIN_ATTEMPT_MS} left.
+     */
+    public <T> T execute(String task, ModelCall<T> call, Predicate<Exception> failover) throws Exception {
+        LlmRoutingProperties.Task route = route(task);
+        long deadline = System.nanoTime() + route.getTimeoutMs() * 1_000_000L;
+        Exception lastError = null;
+        for (String model : candidates(task, route)) {
+            long remainingMs = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMs < MIN_ATTEMPT_MS) {
+                log.warn("Timeout of {} ms for {} used up, not trying {}", route.getTimeoutMs(), task, model);
+                break;
+            }
+            long start = System.nanoTime();
+            try {
+                T result = call.call(model, (int) remainingMs);
+                window(task, model).record((System.nanoTime() - start) / 1_000_000, true);
+                return result;
+            } catch (Exception e) {
+                if (!isRetryable(e) || Thread.currentThread().isInterrupted()) {
+                    // a cancelled caller wants no further attempts
+                    throw e;
+                }
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                window(task, model).record(elapsedMs, false);
+                if (!failover.test(e)) {
+                    throw e;
+                }
+                log.warn("Model {} failed for {} after {} ms, failing over: {}", model, task, elapsedMs, e.getMessage());
+                lastError = e;
+            }
+        }
+        if (lastError == null) {
+            throw new TimeoutException("Timeout of " + route.getTimeoutMs() + " ms for " + task + " is too short for an attempt");
+        }
+        throw lastError;
+    }
+
+    /**
+     * Server errors, rate limiting, I/O errors and timeouts; client errors would fail the same way
+     * on any model
+     */
+    static boolean isRetryable(Exception e) {
+        if (e instanceof HttpStatusCodeException http) {
+            return http.getStatusCode().is5xxServerError() || http.getStatusCode().value() == 429;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Identifies the configured candidate list, for cache keys that must not depend on which
+     * model happened to serve a call
+     */
+    public String routeKey(String task) {
+        return String.join(",", route(task).getModels());
+    }
+
+    public List<ModelHealth> health(String task) {
+        return route(task).getModels().stream().map(model -> health(task, model)).toList();
+    }
+
+    private List<String> candidates(String task, LlmRoutingProperties.Task route) {
+        if (!properties.isEnabled()) {
+            return route.getModels();
+        }
+        List<String> preferred = new ArrayList<>();
+        List<ModelHealth> demoted = new ArrayList<>();
+        for (String model : route.getModels()) {
+            ModelHealth health = health(task, model);
+            if (health.samples() < properties.getMinSamples()
+                    || (health.errorRate() <= properties.getMaxErrorRate() && health.p95Ms() <= route.getLatencyBudgetMs())) {
+                preferred.add(model);
+            } else {
+                demoted.add(health);
+            }
+        }
+        demoted.sort(Comparator.comparingDouble(ModelHealth::errorRate).thenComparingLong(ModelHealth::p95Ms));
+        if (!demoted.isEmpty()) {
+            log.debug("Demoted models for {}: {}", task, demoted);
+        }
+        demoted.forEach(health -> preferred.add(health.model()));
+        return preferred;
+    }
+
+    private ModelHealth health(String task, String model) {
+        return window(task, model).snapshot(model, System.currentTimeMillis() - properties.getSampleTtlSeconds() * 1000);
+    }
+
+    private LlmRoutingProperties.Task route(String task) {
+        LlmRoutingProperties.Task route = properties.getTasks().get(task);
+        if (route == null || route.getModels().isEmpty()) {
+            throw new IllegalStateException("No models configured for LLM task " + task);
+        }
+        return route;
+    }
+
+    private LatencyWindow window(String task, String model) {
+        return windows.computeIfAbsent(task + "|" + model, k -> new LatencyWindow(properties.getWindowSize()));
+    }
+
+    /**
+     * Ring buffer of the latest calls. Failures keep their latency, so timeouts also push p95 up.
+     */
+    private static final class LatencyWindow {
+        private final long[] timestamps;
+        private final long[] latencies;
+        private final boolean[] succeeded;
+        private int next;
+        private int size;
+
+        LatencyWindow(int capacity) {
+            timestamps = new long[capacity];
+            latencies = new long[capacity];
+            succeeded = new boolean[capacity];
+        }
+
+        synchronized void record(long latencyMs, boolean success) {
+            timestamps[next] = System.currentTimeMillis();
+            latencies[next] = latencyMs;
+            succeeded[next] = success;
+            next = (next + 1) % timestamps.length;
+            size = Math.min(size + 1, timestamps.length);
+        }
+
+        synchronized ModelHealth snapshot(String model, long notBefore) {
+            long[] recent = new long[size];
+            int count = 0;
+            int failures = 0;
+            for (int i = 0; i < size; i++) {
+                if (timestamps[i] >= notBefore) {
+                    recent[count++] = latencies[i];
+                    if (!succeeded[i]) {
+                        failures++;
+                    }
+                }
+            }
+            if (count == 0) {
+                return new ModelHealth(model, 0, 0, 0, 0);
+            }
+            Arrays.sort(recent, 0, count);
+            return new ModelHealth(model, count, failures / (double) count,
+                    recent[(count - 1) / 2], recent[(int) Math.ceil(count * 0.95) - 1]);
+        }
+    }
+}
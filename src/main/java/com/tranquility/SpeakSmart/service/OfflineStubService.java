@@ -0,0 +1,296 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.tranquility.SpeakSmart.config.OfflineStubProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offline stand-in for Groq and Cloudinary: synthetic transcriptions, canned chat completions
+ * in the JSON shapes each prompt asks for, an in-memory file store, and the configured latency
+ * and error injection. Only active with {@code offline-stub.enabled}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "offline-stub.enabled", havingValue = "true")
+public class OfflineStubService {
+
+    private static final double WORDS_PER_SECOND = 2.5;     // about 150 WPM
+
+    private static final List<String> SENTENCES = List.of(
+            "Today I want to talk about something that matters to all of us.",
+            "Um, when I first started I honestly had no idea what I was doing.",
+            "The thing is, you know, practice really does make a difference.",
+            "Let me give you a quick example from my own experience.",
+            "We spent weeks preparing and, like, nothing went according to plan.",
+            "But that failure taught me more than any success ever did.",
+            "So basically the lesson is to keep going even when it feels hard.",
+            "I mean, every expert was once a beginner who refused to give up.",
+            "Think about the last time you learned something completely new.",
+            "It probably felt awkward and slow at the start, uh, right?",
+            "That feeling is actually a sign that you are growing.",
+            "Thank you all for listening, and I hope this helps you too."
+    );
+
+    private static final List<String> TOPICS = List.of(
+            "My favorite childhood memory", "Why sleep matters", "The best meal I ever had",
+            "Learning from failure", "A place I want to visit", "How music shapes mood",
+            "The future of transportation", "Small habits big changes", "Lessons from a grandparent",
+            "Why we love pets", "The joy of reading", "Living without a phone"
+    );
+
+    private static final Pattern NUMBERED_LINE = Pattern.compile("(?m)^\\d+\\. ");
+
+    private record StoredFile(String publicId, String resourceType, byte[] content) {
+    }
+
+    private final OfflineStubProperties properties;
+    private final Random random;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, StoredFile> files;
+    private final Map<String, String> fileIdsByPublicId = new LinkedHashMap<>();
+
+    public OfflineStubService(OfflineStubProperties properties) {
+        this.properties = properties;
+        this.random = properties.getSeed() != 0 ? new Random(properties.getSeed()) : new Random();
+        this.files = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredFile> eldest) {
+                if (size() > properties.getMaxStoredFiles()) {
+                    fileIdsByPublicId.remove(eldest.getValue().publicId());
+                    return true;
+                }
+                return false;
+            }
+        };
+        log.warn("Offline stub for Groq and Cloudinary is enabled, no real provider will be called");
+    }
+
+    // ------------------- Latency & errors -------------------
+
+    public void delay(OfflineStubProperties.Latency latency, double audioSeconds) throws InterruptedException {
+        double jitter = Math.exp(latency.getSigma() * random.nextGaussian());
+        long millis = (long) (latency.getMedianMs() * jitter + latency.getPerAudioSecondMs() * audioSeconds);
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    /**
+     * Status code of an injected failure for this call, if one is drawn
+     */
+    public Optional<Integer> injectedError() {
+        if (properties.getErrorRate() <= 0 || random.nextDouble() >= properties.getErrorRate()) {
+            return Optional.empty();
+        }
+        List<Integer> statuses = properties.getErrorStatuses();
+        return Optional.of(statuses.get(random.nextInt(statuses.size())));
+    }
+
+    public Map<String, Object> errorBody(int status) {
+        return Map.of("error", Map.of("message", "Injected offline stub error", "type", "stub_error", "code", status));
+    }
+
+    // ------------------- Transcription -------------------
+
+    /**
+     * verbose_json for synthetic speech filling the duration of the uploaded audio
+     */
+    public ObjectNode transcription(byte[] audio, boolean includeWords) {
+        double duration = audioDurationSeconds(audio);
+        ObjectNode response = mapper.createObjectNode();
+        ArrayNode segments = mapper.createArrayNode();
+        ArrayNode words = mapper.createArrayNode();
+        StringBuilder text = new StringBuilder();
+
+        double t = 0.3;
+        int sentenceIndex = random.nextInt(SENTENCES.size());
+        while (t < duration - 1.0) {
+            String sentence = SENTENCES.get(sentenceIndex++ % SENTENCES.size());
+            double segmentStart = t;
+            for (String token : sentence.split(" ")) {
+                double length = (0.6 + 0.8 * random.nextDouble()) / WORDS_PER_SECOND;
+                if (t + length > duration) {
+                    break;
+                }
+                words.addObject()
+                        .put("word", token.replaceAll("[^A-Za-z']", ""))
+                        .put("start", round(t))
+                        .put("end", round(t + length * 0.85));
+                t += length;
+            }
+            int segmentId = segments.size();
+            segments.addObject()
+                    .put("id", segmentId)
+                    .put("start", round(segmentStart))
+                    .put("end", round(Math.min(t, duration)))
+                    .put("text", " " + sentence);
+            text.append(' ').append(sentence);
+            t += 0.3 + 0.6 * random.nextDouble();     // pause between sentences
+        }
+
+        response.put("task", "transcribe");
+        response.put("language", "English");
+        response.put("duration", round(duration));
+        response.put("text", text.toString());
+        response.set("segments", segments);
+        if (includeWords) {
+            response.set("words", words);
+        }
+        return response;
+    }
+
+    /**
+     * Duration from the WAV header or the FLAC STREAMINFO block, else estimated from size
+     */
+    public double audioDurationSeconds(byte[] audio) {
+        try {
+            AudioFileFormat format = AudioSystem.getAudioFileFormat(new ByteArrayInputStream(audio));
+            if (format.getFrameLength() > 0) {
+                return format.getFrameLength() / format.getFormat().getFrameRate();
+            }
+        } catch (Exception ignored) {
+            // not a format the JDK reads
+        }
+        if (audio.length >= 26 && audio[0] == 'f' && audio[1] == 'L' && audio[2] == 'a' && audio[3] == 'C') {
+            // STREAMINFO: 20 bit sample rate and 36 bit total samples, starting at byte 18
+            long bits = 0;
+            for (int i = 18; i < 26; i++) {
+                bits = (bits << 8) | (audio[i] & 0xff);
+            }
+            long sampleRate = bits >>> 44;
+            long totalSamples = bits & 0xFFFFFFFFFL;
+            if (sampleRate > 0 && totalSamples > 0) {
+                return totalSamples / (double) sampleRate;
+            }
+        }
+        return Math.max(1.0, audio.length / 32_000.0);   // 16 kHz 16 bit mono
+    }
+
+    // ------------------- Chat -------------------
+
+    /**
+     * Completion content in the JSON shape the prompt asks for. Reasoning models get a
+     * {@code <think>} preamble, like the real ones.
+     */
+    public String chatCompletion(String model, String systemMessage, String userMessage) {
+        String prompt = systemMessage + "\n" + userMessage;
+        ObjectNode content = mapper.createObjectNode();
+
+        if (prompt.contains("\"grammatical_errors\"")) {
+            content.putArray("grammatical_errors").addObject()
+                    .put("sentence", "We was preparing for weeks.")
+                    .put("correct", "We were preparing for weeks.")
+                    .put("explanation", "Use 'were' with 'we'.");
+            ArrayNode suggestions = content.putArray("long_sentence_suggestions");
+            String longSentences = systemMessage.contains("Long sentences:")
+                    ? systemMessage.substring(systemMessage.indexOf("Long sentences:")) : "";
+            Matcher numbered = NUMBERED_LINE.matcher(longSentences);
+            while (numbered.find()) {
+                suggestions.add("A shorter and clearer version of this sentence.");
+            }
+            content.put("modified_text", userMessage);
+            content.put("fancy_text", userMessage);
+            content.putArray("meanings").addObject().put("word", "perseverance").put("meaning", "not giving up");
+        } else if (prompt.contains("\"fancy_and_sophisticated_words\"")) {
+            for (String style : List.of("fancy_and_sophisticated_words", "technical_terms_and_jargon",
+                    "humorous_with_funny_metaphors", "concise_and_appropriate_wording", "philosophical_and_deep_thinker")) {
+                content.put(style, "A " + style.replace('_', ' ') + " rephrasal of the speech.");
+            }
+        } else if (prompt.contains("\"topics\"")) {
+            ArrayNode topics = content.putArray("topics");
+            int offset = random.nextInt(TOPICS.size());
+            for (int i = 0; i < 5; i++) {
+                topics.add(TOPICS.get((offset + i) % TOPICS.size()));
+            }
+        } else if (prompt.contains("\"drill_exercises\"")) {
+            ArrayNode drills = content.putArray("drill_exercises");
+            for (int i = 0; i < 5; i++) {
+                boolean fast = i % 2 == 0;
+                ObjectNode drill = drills.addObject()
+                        .put("text", String.join(" ", SENTENCES.subList(i, i + 3)))
+                        .put("type", fast ? "fast" : "slow");
+                drill.putArray("expected_speech_rate").add(fast ? 176 : 100).add(fast ? 220 : 129);
+            }
+        } else if (prompt.contains("\"mock_interview\"")) {
+            ArrayNode questions = content.putArray("mock_interview");
+            for (int i = 0; i < 5; i++) {
+                questions.addObject()
+                        .put("category", "Personal & Behavioral")
+                        .put("question", "Tell me about a time you learned something new (" + (i + 1) + ").")
+                        .put("advice", "Use a concrete example and explain the outcome.");
+            }
+        } else if (prompt.contains("\"speech\"")) {
+            content.put("speech", String.join(" ", SENTENCES) + " " + String.join(" ", SENTENCES));
+        } else {
+            content.put("text", "Offline stub response.");
+        }
+
+        String json = content.toString();
+        return model != null && model.startsWith("qwen") ? "<think>\nOffline stub reasoning.\n</think>\n" + json : json;
+    }
+
+    /**
+     * Split a completion into small pieces, roughly the size of LLM tokens
+     */
+    public List<String> tokens(String completion) {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < completion.length(); i += 4) {
+            tokens.add(completion.substring(i, Math.min(completion.length(), i + 4)));
+        }
+        return tokens;
+    }
+
+    // ------------------- Files -------------------
+
+    public synchronized Map<String, Object> store(String resourceType, String folder, String publicId,
+                                                  byte[] content, String baseUrl) {
+        String name = (publicId != null && !publicId.isBlank() ? publicId + "_" : "")
+                + UUID.randomUUID().toString().substring(0, 8);
+        String fullPublicId = folder != null && !folder.isBlank() ? folder + "/" + name : name;
+        String fileId = UUID.randomUUID().toString();
+        files.put(fileId, new StoredFile(fullPublicId, resourceType, content));
+        fileIdsByPublicId.put(fullPublicId, fileId);
+
+        String url = baseUrl + "/stub/cloudinary/files/" + fileId;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("public_id", fullPublicId);
+        result.put("version", Instant.now().getEpochSecond());
+        result.put("resource_type", resourceType);
+        result.put("bytes", content.length);
+        result.put("created_at", Instant.now().toString());
+        result.put("url", url);
+        result.put("secure_url", url);
+        return result;
+    }
+
+    public synchronized Optional<byte[]> file(String fileId) {
+        return Optional.ofNullable(files.get(fileId)).map(StoredFile::content);
+    }
+
+    public synchronized boolean delete(String publicId) {
+        String fileId = fileIdsByPublicId.remove(publicId);
+        return fileId != null && files.remove(fileId) != null;
+    }
+
+    private static double round(double seconds) {
+        return Math.round(seconds * 100) / 100.0;
+    }
+}
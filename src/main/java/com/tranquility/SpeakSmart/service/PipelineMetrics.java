@@ -0,0 +1,342 @@
+package com.tranquility.SpeakSmart.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timers for the analysis pipeline, one percentile histogram per stage plus one
+ * for the whole job, tagged by outcome and by a bucket of the recording's duration.
+ * <p>
+ * Each stage also records the CPU time and heap bytes allocated by the thread running it,
+ * from {@link com.sun.management.ThreadMXBean}, so GC pressure can be pinned on a stage even
+ * with concurrent jobs. Work a stage hands to other threads or processes (transcription and
+ * vocab chunks on their pools, ffmpeg) is not included.
+ * <p>
+ * A {@link Job} times the stages of one analysis and also keeps their figures for the job's
+ * own {@code ProcessingMetrics}. Stages and jobs are also emitted as JFR events
+ * ({@code speaksmart.PipelineStage}, {@code speaksmart.AnalysisJob}) to line them up with GC
+ * pauses, safepoints and lock contention in a recording; with no recording running they cost
+ * nothing. Each stage is a {@code speaksmart.analysis.stage} span under the job's trace as well.
+ */
+@Service
+public class PipelineMetrics {
+
+    public static final String STAGE_TIMER = "speaksmart.pipeline.stage";
+    public static final String STAGE_CPU_TIMER = "speaksmart.pipeline.stage.cpu";
+    public static final String STAGE_ALLOCATION = "speaksmart.pipeline.stage.allocated";
+    public static final String JOB_TIMER = "speaksmart.pipeline.job";
+    public static final String STAGE_OBSERVATION = "speaksmart.analysis.stage";
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+    public enum Stage {
+        DOWNLOAD, TRANSCODE, DECODE, TRANSCRIPTION, DSP, FEATURE_STORE, CHART_RENDER, CHART_UPLOAD, VOCAB_LLM, RESULT_UPLOAD;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @FunctionalInterface
+    public interface StageCall<T> {
+        T call() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface StageRunnable {
+        void run() throws Exception;
+    }
+
+    /**
+     * Wall time, CPU time and allocation of the current thread over a stretch of work
+     */
+    public record Usage(long wallNanos, long cpuNanos, long allocatedBytes) {
+    }
+
+    /**
+     * Start of a {@link Usage} measurement, to be stopped on the same thread
+     */
+    public static final class Sample {
+
+        private final long wallNanos = System.nanoTime();
+        private final long cpuNanos = cpuNanos();
+        private final long allocatedBytes = allocatedBytes();
+
+        private Sample() {
+        }
+
+        public static Sample start() {
+            return new Sample();
+        }
+
+        public Usage stop() {
+            return new Usage(System.nanoTime() - wallNanos, cpuNanos() - cpuNanos, allocatedBytes() - allocatedBytes);
+        }
+    }
+
+    @Name("speaksmart.PipelineStage")
+    @Label("Pipeline Stage")
+    @Category({"SpeakSmart", "Analysis Pipeline"})
+    @Description("One stage of an audio analysis")
+    @StackTrace(false)
+    static class StageEvent extends Event {
+        @Label("Request Id")
+        String requestId;
+        @Label("Stage")
+        String stage;
+        @Label("Audio Seconds")
+        double audioSeconds;
+        @Label("Bytes")
+        @Description("Size of the stage input or output, e.g. downloaded or uploaded bytes")
+        @DataAmount
+        long bytes;
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+        @Label("CPU Time")
+        @Timespan
+        long cpuTime;
+        @Label("Success")
+        boolean success;
+    }
+
+    @Name("speaksmart.AnalysisJob")
+    @Label("Analysis Job")
+    @Category({"SpeakSmart", "Analysis Pipeline"})
+    @Description("A whole audio analysis job, from pick-up to its end")
+    @StackTrace(false)
+    static class JobEvent extends Event {
+        @Label("Request Id")
+        String requestId;
+        @Label("Audio Seconds")
+        double audioSeconds;
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+        @Label("CPU Time")
+        @Timespan
+        long cpuTime;
+        @Label("Success")
+        boolean success;
+    }
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    public Job startJob(String requestId, Double audioSeconds) {
+        return new Job(requestId, audioSeconds != null ? audioSeconds : 0);
+    }
+
+    /**
+     * Record a stage measured outside a {@link Job}, e.g. transcoding at upload time
+     */
+    public void record(Stage stage, double audioSeconds, boolean success, Usage usage) {
+        timer(STAGE_TIMER, "Time spent in one stage of the analysis pipeline", audioSeconds, success)
+                .tag("stage", stage.tag())
+                .register(registry)
+                .record(usage.wallNanos(), TimeUnit.NANOSECONDS);
+        timer(STAGE_CPU_TIMER, "CPU time of the thread running one stage of the analysis pipeline", audioSeconds, success)
+                .tag("stage", stage.tag())
+                .register(registry)
+                .record(usage.cpuNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(STAGE_ALLOCATION)
+                .description("Heap allocated by the thread running one stage of the analysis pipeline")
+                .baseUnit("bytes")
+                .tag("stage", stage.tag())
+                .tag("outcome", success ? "success" : "error")
+                .tag("duration_bucket", durationBucket(audioSeconds))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue(16.0 * 1024 * 1024 * 1024)
+                .register(registry)
+                .record(usage.allocatedBytes());
+    }
+
+    /**
+     * Coarse bucket of the recording length, so stage times of short and long recordings are not mixed
+     */
+    public static String durationBucket(double audioSeconds) {
+        if (audioSeconds <= 0) return "unknown";
+        if (audioSeconds < 60) return "under_1m";
+        if (audioSeconds < 180) return "1m_to_3m";
+        if (audioSeconds < 600) return "3m_to_10m";
+        return "over_10m";
+    }
+
+    private Timer.Builder timer(String name, String description, double audioSeconds, boolean success) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("outcome", success ? "success" : "error")
+                .tag("duration_bucket", durationBucket(audioSeconds))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(30));
+    }
+
+    /**
+     * Stage timing for one analysis. Used by the single thread running the job.
+     */
+    public class Job {
+
+        private final JobEvent jobEvent = new JobEvent();
+        private final Sample jobSample = Sample.start();
+        private final String requestId;
+        private final Map<String, Long> stageTimesMs = new LinkedHashMap<>();
+        private final Map<String, Long> stageCpuMs = new LinkedHashMap<>();
+        private final Map<String, Long> stageAllocatedBytes = new LinkedHashMap<>();
+        private double audioSeconds;
+
+        private Job(String requestId, double audioSeconds) {
+            this.requestId = requestId;
+            this.audioSeconds = audioSeconds;
+            jobEvent.begin();
+        }
+
+        /**
+         * Once the audio is decoded its exact length can replace the estimate from upload
+         */
+        public void setAudioSeconds(double audioSeconds) {
+            this.audioSeconds = audioSeconds;
+        }
+
+        /**
+         * Time a stage; a {@code byte[]} result counts as the stage's bytes
+         */
+        public <T> T record(Stage stage, StageCall<T> call) throws Exception {
+            return record(stage, -1, call);
+        }
+
+        /**
+         * Time a stage that consumes {@code bytes} of input
+         */
+        public <T> T record(Stage stage, long bytes, StageCall<T> call) throws Exception {
+            StageEvent event = new StageEvent();
+            event.begin();
+            Sample sample = Sample.start();
+            boolean success = false;
+            T result = null;
+            try {
+                result = Observation.createNotStarted(STAGE_OBSERVATION, observationRegistry)
+                        .contextualName(stage.tag())
+                        .lowCardinalityKeyValue("stage", stage.tag())
+                        .observeChecked(call::call);
+                success = true;
+                return result;
+            } finally {
+                Usage usage = sample.stop();
+                stageFinished(stage, success, usage);
+                if (event.shouldCommit()) {
+                    event.requestId = requestId;
+                    event.stage = stage.tag();
+                    event.audioSeconds = audioSeconds;
+                    event.bytes = bytes >= 0 ? bytes : result instanceof byte[] array ? array.length : 0;
+                    event.allocated = usage.allocatedBytes();
+                    event.cpuTime = usage.cpuNanos();
+                    event.success = success;
+                    event.commit();
+                }
+            }
+        }
+
+        public void run(Stage stage, StageRunnable runnable) throws Exception {
+            run(stage, -1, runnable);
+        }
+
+        public void run(Stage stage, long bytes, StageRunnable runnable) throws Exception {
+            record(stage, bytes, () -> {
+                runnable.run();
+                return null;
+            });
+        }
+
+        /**
+         * Wall-clock milliseconds per stage so far, a stage run twice is summed
+         */
+        public Map<String, Long> getStageTimesMs() {
+            return new LinkedHashMap<>(stageTimesMs);
+        }
+
+        public Map<String, Long> getStageCpuMs() {
+            return new LinkedHashMap<>(stageCpuMs);
+        }
+
+        public Map<String, Long> getStageAllocatedBytes() {
+            return new LinkedHashMap<>(stageAllocatedBytes);
+        }
+
+        /**
+         * Usage of the job thread since the job started
+         */
+        public Usage usage() {
+            return jobSample.stop();
+        }
+
+        public void finish(boolean success) {
+            Usage usage = usage();
+            timer(JOB_TIMER, "Time from picking up an analysis job to its end", audioSeconds, success)
+                    .register(registry)
+                    .record(usage.wallNanos(), TimeUnit.NANOSECONDS);
+            if (jobEvent.shouldCommit()) {
+                jobEvent.requestId = requestId;
+                jobEvent.audioSeconds = audioSeconds;
+                jobEvent.allocated = usage.allocatedBytes();
+                jobEvent.cpuTime = usage.cpuNanos();
+                jobEvent.success = success;
+                jobEvent.commit();
+            }
+        }
+
+        private void stageFinished(Stage stage, boolean success, Usage usage) {
+            stageTimesMs.merge(stage.tag(), usage.wallNanos() / 1_000_000, Long::sum);
+            stageCpuMs.merge(stage.tag(), usage.cpuNanos() / 1_000_000, Long::sum);
+            stageAllocatedBytes.merge(stage.tag(), usage.allocatedBytes(), Long::sum);
+            PipelineMetrics.this.record(stage, audioSeconds, success, usage);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            if (threads.isThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+                threads.setThreadCpuTimeEnabled(true);
+            }
+            if (threads.isThreadAllocatedMemorySupported() && !threads.isThreadAllocatedMemoryEnabled()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+            }
+            return threads;
+        }
+        return null;
+    }
+
+    // 0 where the JVM cannot measure, so usage deltas come out as 0 rather than garbage
+    private static long cpuNanos() {
+        return THREADS != null && THREADS.isThreadCpuTimeEnabled() ? Math.max(0, THREADS.getCurrentThreadCpuTime()) : 0;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS != null && THREADS.isThreadAllocatedMemoryEnabled()
+                ? Math.max(0, THREADS.getCurrentThreadAllocatedBytes()) : 0;
+    }
+}
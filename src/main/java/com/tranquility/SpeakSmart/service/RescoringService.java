@@ -0,0 +1,215 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.tranquility.SpeakSmart.model.AnalysisFeatures;
+import com.tranquility.SpeakSmart.model.AnalysisRequest;
+import com.tranquility.SpeakSmart.model.AnalysisResult;
+import com.tranquility.SpeakSmart.repository.AnalysisFeaturesRepository;
+import com.tranquility.SpeakSmart.repository.AnalysisRequestRepository;
+import com.tranquility.SpeakSmart.util.FeatureVectorCodec;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scores past analyses again from their stored feature vectors, without downloading, decoding or
+ * transcribing the audio. Only the scores in the requests' quick results are rewritten; the full
+ * result JSON in Cloudinary keeps the scores it was first analysed with, and the download endpoint
+ * flags it as superseded once the two differ.
+ * <p>
+ * Rescoring everything runs as a background job, one at a time, reading requests and saving
+ * them a batch at a time.
+ */
+@Slf4j
+@Service
+public class RescoringService {
+
+    private static final Duration FINISHED_JOB_TTL = Duration.ofDays(1);
+
+    @Autowired
+    private AnalysisFeaturesRepository analysisFeaturesRepository;
+
+    @Autowired
+    private AnalysisRequestRepository analysisRequestRepository;
+
+    @Autowired
+    private SpeechAnalysisService speechAnalysisService;
+
+    @Autowired
+    private ScoringModels scoringModels;
+
+    @Autowired
+    @Qualifier("rescoringTaskExecutor")
+    private Executor rescoringTaskExecutor;
+
+    @Value("${scoring.rescore-batch-size:200}")
+    private int batchSize;
+
+    private final Map<String, RescoreJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicReference<RescoreJob> running = new AtomicReference<>();
+
+    /**
+     * Progress of one rescore-all run; counters are written by the job thread only
+     */
+    @Getter
+    public static class RescoreJob {
+        private final String id = UUID.randomUUID().toString();
+        private final int version;
+        private final Instant startedAt = Instant.now();
+        private volatile Instant finishedAt;
+        private volatile boolean succeeded;
+        private volatile int rescored;
+        private volatile int skipped;
+        private volatile int failed;
+
+        RescoreJob(int version) {
+            this.version = version;
+        }
+
+        public boolean isRunning() {
+            return finishedAt == null;
+        }
+
+        public Map<String, Object> summary() {
+            long elapsedMs = Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now()).toMillis();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("job_id", id);
+            summary.put("status", isRunning() ? "RUNNING" : succeeded ? "COMPLETED" : "FAILED");
+            summary.put("scoring_version", version);
+            summary.put("rescored", rescored);
+            summary.put("skipped", skipped);
+            summary.put("failed", failed);
+            summary.put("elapsed_ms", elapsedMs);
+            summary.put("ms_per_analysis", rescored > 0 ? (double) elapsedMs / rescored : 0.0);
+            return summary;
+        }
+    }
+    /**
+     * Score one analysis with the given version without saving anything
+     */
+    public Optional<AnalysisResult> rescore(String requestId, int version) throws IOException {
+        ScoringModel scoring = scoringModels.get(version);
+        Optional<AnalysisFeatures> stored = analysisFeaturesRepository.findById(requestId);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(speechAnalysisService.scoreFeatures(FeatureVectorCodec.decode(stored.get().getData()), scoring));
+    }
+
+    /**
+     * Start scoring every completed analysis with stored features with the given version, saving the
+     * new scores as it goes
+     *
+     * @throws IllegalArgumentException for an unknown version
+     * @throws IllegalStateException    while another rescoring job is running
+     */
+    public RescoreJob startRescoreAll(int version) {
+        ScoringModel scoring = scoringModels.get(version);
+        RescoreJob job = new RescoreJob(version);
+        RescoreJob current = running.compareAndExchange(null, job);
+        if (current != null) {
+            throw new IllegalStateException("Rescoring job " + current.getId() + " is still running");
+        }
+        Instant expired = Instant.now().minus(FINISHED_JOB_TTL);
+        jobs.values().removeIf(old -> !old.isRunning() && old.getFinishedAt().isBefore(expired));
+        jobs.put(job.getId(), job);
+        try {
+            rescoringTaskExecutor.execute(() -> rescoreAll(job, scoring));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            running.set(null);
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<RescoreJob> job(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void rescoreAll(RescoreJob job, ScoringModel scoring) {
+        try (Stream<AnalysisFeatures> all = analysisFeaturesRepository.streamAllBy()) {
+            List<AnalysisFeatures> batch = new ArrayList<>(batchSize);
+            for (AnalysisFeatures stored : (Iterable<AnalysisFeatures>) all::iterator) {
+                batch.add(stored);
+                if (batch.size() == batchSize) {
+                    rescoreBatch(batch, scoring, job);
+                    batch.clear();
+                }
+            }
+            rescoreBatch(batch, scoring, job);
+            job.succeeded = true;
+        } catch (Exception e) {
+            log.error("Rescoring job {} with scoring version {} failed", job.getId(), job.getVersion(), e);
+        } finally {
+            job.finishedAt = Instant.now();
+            running.set(null);
+            log.info("Rescoring job {}: {}", job.getId(), job.summary());
+        }
+    }
+
+    private void rescoreBatch(List<AnalysisFeatures> batch, ScoringModel scoring, RescoreJob job) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<String, AnalysisRequest> requests = analysisRequestRepository
+                .findAllById(batch.stream().map(AnalysisFeatures::getRequestId).toList()).stream()
+                .collect(Collectors.toMap(AnalysisRequest::getId, Function.identity()));
+
+        List<AnalysisRequest> rescored = new ArrayList<>(batch.size());
+        for (AnalysisFeatures stored : batch) {
+            AnalysisRequest request = requests.get(stored.getRequestId());
+            if (request == null || request.getStatus() != AnalysisRequest.AnalysisStatus.COMPLETED) {
+                job.skipped++;
+                continue;
+            }
+            try {
+                applyScores(request, speechAnalysisService.scoreFeatures(FeatureVectorCodec.decode(stored.getData()), scoring));
+                rescored.add(request);
+            } catch (Exception e) {
+                log.error("Error rescoring request: {}", stored.getRequestId(), e);
+                job.failed++;
+            }
+        }
+        try {
+            analysisRequestRepository.saveAll(rescored);
+            job.rescored += rescored.size();
+        } catch (Exception e) {
+            log.error("Error saving {} rescored requests", rescored.size(), e);
+            job.failed += rescored.size();
+        }
+    }
+
+    private void applyScores(AnalysisRequest request, AnalysisResult result) {
+        Map<String, Object> quickResults = request.getQuickResults() != null
+                ? new HashMap<>(request.getQuickResults()) : new HashMap<>();
+        quickResults.put("speech_rate_score", result.getSpeechRate().getScore());
+        quickResults.put("intonation_score", result.getIntonation().getScore());
+        quickResults.put("energy_score", result.getEnergy().getScore());
+        quickResults.put("pause_score", result.getPauses().getScore());
+        quickResults.put("overall_score", result.getOverallScore());
+        quickResults.put("scoring_version", result.getScoringVersion());
+        request.setQuickResults(quickResults);
+        request.setScoringVersion(result.getScoringVersion());
+    }
+}
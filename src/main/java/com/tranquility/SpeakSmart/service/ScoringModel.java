@@ -0,0 +1,43 @@
+package com.tranquility.SpeakSmart.service;
+
+/**
+ * One version of the score formulas, turning the statistics {@link SpeechAnalysisService}
+ * derives from the audio features into categories and 0-100 scores.
+ * <p>
+ * A released version must keep producing the same scores, since stored results name the version
+ * they were scored with. Changed thresholds or formulas go into a new implementation with the
+ * next {@link #version()}, and history is moved over with {@link RescoringService}.
+ * Categories are the keys of the feedback texts, so keep their names across versions.
+ */
+public interface ScoringModel {
+
+    int version();
+
+    String speechRateCategory(double avgWpm);
+
+    double speechRateScore(double avgWpm);
+
+    /**
+     * @param voicedPitch pitch of the voiced frames in Hz
+     */
+    double pitchVariationScore(double[] voicedPitch, double mean, double stdDev);
+
+    String intonationCategory(double pitchVariationScore);
+
+    String energyCategory(double avgEnergy);
+
+    double energyScore(double avgEnergy);
+
+    /**
+     * @param pauseRate pauses per second of audio
+     */
+    String pauseCategory(double pauseRate);
+
+    double pauseScore(double pauseRate);
+
+    String fillerCategory(double fillersPerMinute);
+
+    double fillerScore(double fillersPerMinute);
+
+    double overallScore(double speechRate, double intonation, double energy, double pauses, double fillers);
+}
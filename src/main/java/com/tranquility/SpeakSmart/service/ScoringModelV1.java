@@ -0,0 +1,125 @@
+package com.tranquility.SpeakSmart.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * The original score formulas, as first shipped with the analysis pipeline
+ */
+@Component
+public class ScoringModelV1 implements ScoringModel {
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public String speechRateCategory(double avgSpeechRate) {
+        if (avgSpeechRate < 100) return "very slow";
+        if (avgSpeechRate < 130) return "slow";
+        if (avgSpeechRate > 200) return "very fast";
+        if (avgSpeechRate > 175) return "fast";
+        return "good";
+    }
+
+    @Override
+    public double speechRateScore(double avgSpeechRate) {
+        String category = speechRateCategory(avgSpeechRate);
+        return switch (category) {
+            case "good" -> 50 + (avgSpeechRate - 130) * (20.0 / 45);        // 130-175
+            case "slow" -> 30 + (avgSpeechRate - 100) * (20.0 / 30);        // 100-130
+            case "fast" -> 50 + (avgSpeechRate - 175) * (20.0 / 25);        // 175-200
+            case "very slow" -> Math.max(0, 30 - (100 - avgSpeechRate) * (30.0 / 100));
+            default -> Math.min(100, 70 + (avgSpeechRate - 200) * (30.0 / 100)); // very fast
+        };
+    }
+
+    @Override
+    public double pitchVariationScore(double[] valid, double mean, double stdDev) {
+        if (valid.length == 0) return 0.0; // no voiced frames
+
+        double zScore = (stdDev - 40) / 40; // Z-score vs average expressive speakers
+        double score;
+        if (stdDev < 20)
+            score = stdDev / 20 * 0.5;  // too monotone → penalize heavily   // max 0.5
+        else if (stdDev > 80)
+            score = 80 / stdDev * 0.5; // too erratic → penalize // drops towards 0
+        else
+            score = 1.0 / (1.0 + Math.abs(zScore)); // good variation → scale around z-score
+
+        return Math.max(0.0, Math.min(1.0, score)) * 100;   // clamp 0–1
+    }
+
+    @Override
+    public String intonationCategory(double score) {
+        if (score > 50) return "high";
+        if (score >= 25) return "good";
+        return "low";
+    }
+
+    @Override
+    public String energyCategory(double avgEnergy) {
+        if (avgEnergy < 0.04) return "low";
+        if (avgEnergy > 0.08) return "high";
+        return "good";
+    }
+
+    @Override
+    public double energyScore(double avgEnergy) {
+        String category = energyCategory(avgEnergy);
+
+        double rawScore = switch (category) {
+            case "good" -> 70 + (avgEnergy - 0.04) * (30.0 / 0.04);
+            case "low"  -> 30 + (avgEnergy - 0.02) * (40.0 / 0.02);
+            default     -> 70 - (avgEnergy - 0.08) * (40.0 / 0.02);
+        };
+
+        return Math.max(0, Math.min(100, rawScore));
+    }
+
+    @Override
+    public String pauseCategory(double pauseRate) {
+        if (pauseRate < 2) return "less pauses";
+        if (pauseRate > 8) return "many pauses";
+        return "excellent";
+    }
+
+    @Override
+    public double pauseScore(double pauseRate) {
+        String category = pauseCategory(pauseRate);
+        return switch (category) {
+            case "less pauses" -> 90 - (pauseRate * (40.0 / 2));
+            case "excellent" -> 70 - (pauseRate - 2) * (20.0 / 6);
+            default -> 50 - (pauseRate - 8) * (30.0 / 4); // many pauses
+        };
+    }
+
+    @Override
+    public String fillerCategory(double fillersPerMinute) {
+        if (fillersPerMinute < 3) return "minimal";
+        if (fillersPerMinute > 8) return "frequent";
+        return "moderate";
+    }
+
+    @Override
+    public double fillerScore(double fillersPerMinute) {
+        String category = fillerCategory(fillersPerMinute);
+        return switch (category) {
+            case "minimal" -> 100 - fillersPerMinute * (10.0 / 3);                     // 0-3 per minute
+            case "moderate" -> 90 - (fillersPerMinute - 3) * (40.0 / 5);              // 3-8 per minute
+            default -> Math.max(0, 50 - (fillersPerMinute - 8) * (50.0 / 12));       // frequent
+        };
+    }
+
+    @Override
+    public double overallScore(double speechRatePercent, double intonationPercent, double energyPercent,
+                               double pausesPercent, double fillerPercent) {
+        double part = 0.2;
+        double speechRateScore = part * speechRatePercent;
+        double intonationScore = part * intonationPercent;
+        double energyScore = part * energyPercent;
+        double confidenceScore = part * pausesPercent;
+        double fluencyScore = part * fillerPercent;
+        return speechRateScore + intonationScore + energyScore + confidenceScore + fluencyScore;
+    }
+}
@@ -0,0 +1,48 @@
+package com.tranquility.SpeakSmart.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The released {@link ScoringModel} versions by number, and the one new analyses are scored with
+ * ({@code scoring.version})
+ */
+@Slf4j
+@Service
+public class ScoringModels {
+
+    private final Map<Integer, ScoringModel> models = new TreeMap<>();
+
+    @Value("${scoring.version:1}")
+    private int currentVersion;
+
+    public ScoringModels(List<ScoringModel> models) {
+        for (ScoringModel model : models) {
+            if (this.models.put(model.version(), model) != null) {
+                throw new IllegalStateException("Two scoring models claim version " + model.version());
+            }
+        }
+    }
+
+    public ScoringModel current() {
+        return get(currentVersion);
+    }
+
+    public ScoringModel get(int version) {
+        ScoringModel model = models.get(version);
+        if (model == null) {
+            throw new IllegalArgumentException("Unknown scoring version " + version + ", available: " + models.keySet());
+        }
+        return model;
+    }
+
+    public Set<Integer> versions() {
+        return models.keySet();
+    }
+}
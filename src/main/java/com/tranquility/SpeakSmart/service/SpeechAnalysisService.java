@@ -7,16 +7,23 @@ import be.tarsos.dsp.filters.HighPass;
 import be.tarsos.dsp.filters.LowPassFS;
 import be.tarsos.dsp.io.jvm.AudioDispatcherFactory;
 import be.tarsos.dsp.pitch.PitchProcessor;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.tranquility.SpeakSmart.model.AnalysisFeatures;
 import com.tranquility.SpeakSmart.model.AnalysisRequest;
 import com.tranquility.SpeakSmart.model.AnalysisResult;
+import com.tranquility.SpeakSmart.model.FeatureVector;
+import com.tranquility.SpeakSmart.model.TranscriptionResponse;
 import com.tranquility.SpeakSmart.model.VocabAnalysis;
-import com.tranquility.SpeakSmart.util.LlmUtils;
+import com.tranquility.SpeakSmart.repository.AnalysisFeaturesRepository;
+import com.tranquility.SpeakSmart.service.PipelineMetrics.Stage;
+import com.tranquility.SpeakSmart.util.AhoCorasick;
+import com.tranquility.SpeakSmart.util.FeaturePyramid;
+import com.tranquility.SpeakSmart.util.FeatureVectorCodec;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.knowm.xchart.XYChart;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -25,8 +32,11 @@ import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.UnsupportedAudioFileException;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -42,9 +52,40 @@ public class SpeechAnalysisService {
     @Autowired
     private ChartGenerationService chartGenerationService;
 
+    @Autowired
+    private TranscriptionService transcriptionService;
+
+    @Autowired
+    private VocabAnalysisService vocabAnalysisService;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private ScoringModels scoringModels;
+
+    @Autowired
+    private AnalysisFeaturesRepository analysisFeaturesRepository;
+
+    // Clients drawing the contour from /ai/analysis/{id}/series/pitch can do without the PNG
+    @Value("${analysis-series.intonation-chart:true}")
+    private boolean intonationChart = true;
+
     private static final int BUFFER_SIZE = 1024;
     private static final int OVERLAP = 512;
 
+    // Whisper punctuates a filler "like" with commas, which separates it from the verb
+    private static final List<String> FILLER_PATTERNS = List.of(
+            "um", "umm", "uh", "uhh", "er", "erm", "hmm", "you know", "i mean",
+            "basically", "actually", "literally", ", like,");
+    private static final List<String> FILLER_LABELS = FILLER_PATTERNS.stream()
+            .map(p -> p.replace(",", "").trim())
+            .toList();
+    private static final AhoCorasick FILLER_MATCHER = new AhoCorasick(FILLER_PATTERNS);
+
+    private static final double SPEECH_RATE_WINDOW_SECONDS = 8.0;
+    private static final double SPEECH_RATE_STEP_SECONDS = 0.5;
+
     /*public static void main(String[] args) throws Exception {
         String fileName = "aman.wav";
         String filePath = System.getProperty("user.dir") + "/audio/" + fileName;
@@ -140,7 +181,22 @@ public class SpeechAnalysisService {
      * extracts all parameters efficiently
      */
     public AnalysisResult analyzeAudio(MultipartFile audioFile, AnalysisRequest request) throws Exception {
-        long startTime = System.currentTimeMillis();
+        return analyzeAudio(audioFile, null, request);
+    }
+
+    /**
+     * @param transcriptionAudio compact 16 kHz FLAC produced at ingest, or null to transcribe the WAV itself
+     */
+    public AnalysisResult analyzeAudio(MultipartFile audioFile, byte[] transcriptionAudio, AnalysisRequest request) throws Exception {
+        return analyzeAudio(audioFile, transcriptionAudio, request,
+                pipelineMetrics.startJob(request.getId(), request.getAudioDurationSeconds()));
+    }
+
+    /**
+     * @param job times each stage, for Micrometer and for the result's processing metrics
+     */
+    public AnalysisResult analyzeAudio(MultipartFile audioFile, byte[] transcriptionAudio, AnalysisRequest request,
+                                       PipelineMetrics.Job job) throws Exception {
         log.info("Starting comprehensive audio analysis for request: {}", request.getId());
 
         AnalysisResult result = new AnalysisResult();
@@ -148,57 +204,57 @@ public class SpeechAnalysisService {
         result.setUserId(request.getUserId());
         result.setAudioUrl(request.getAudioUrl());
         result.setAnalyzedAt(LocalDateTime.now());
+        ScoringModel scoring = scoringModels.current();
 
         try {
             // Step 1: Load and validate audio
-            long audioLoadStart = System.currentTimeMillis();
-            AudioData audioData = loadAudioData(audioFile.getBytes());
-            long audioLoadTime = System.currentTimeMillis() - audioLoadStart;
+            AudioData audioData = job.record(Stage.DECODE, audioFile.getSize(), () -> loadAudioData(audioFile.getBytes()));
+            job.setAudioSeconds(audioData.getDuration());
 
             // Step 2: Get transcription (parallel to audio processing)
-            long transcriptionStart = System.currentTimeMillis();
-            Map<String, Object> transcriptionResponse = aiService.transcribe(audioFile.getBytes(), audioFile.getOriginalFilename());
-            parseTranscriptionAndComputeSpeechRate(transcriptionResponse, result);
-
-            long transcriptionTime = System.currentTimeMillis() - transcriptionStart;
+            long transcriptionBytes = transcriptionAudio != null ? transcriptionAudio.length : audioFile.getSize();
+            job.run(Stage.TRANSCRIPTION, transcriptionBytes, () -> {
+                TranscriptionResponse transcriptionResponse = transcriptionService.transcribe(audioFile.getBytes(), transcriptionAudio, audioFile.getOriginalFilename());
+                parseTranscriptionAndComputeSpeechRate(transcriptionResponse, result, scoring);
+            });
 
             // Step 3: Single-pass audio analysis
-            long analysisStart = System.currentTimeMillis();
-            AudioAnalysisResults analysisResults = performSinglePassAnalysis(audioData);
-            long analysisTime = System.currentTimeMillis() - analysisStart;
+            AudioAnalysisResults analysisResults = job.record(Stage.DSP, () -> {
+                AudioAnalysisResults features = performSinglePassAnalysis(audioData);
 
-            // Step 4: Calculate comprehensive metrics
-            result.setAudioMetadata(createAudioMetadata(audioData, audioFile.getContentType(), audioFile.getSize()));
-            result.setIntonation(calculateIntonationAnalysis(analysisResults.getPitchTimeSeries(), analysisResults.getPitchValues(), audioData.getDuration()));
-            analyzeEnergyAndPauses(analysisResults.getEnergyTimeSeries(), result);
+                // Step 4: Calculate comprehensive metrics
+                result.setAudioMetadata(createAudioMetadata(audioData, audioFile.getContentType(), audioFile.getSize()));
+                result.setIntonation(calculateIntonationAnalysis(features.getPitchTimeSeries(), features.getPitchValues(), audioData.getDuration(), scoring));
+                analyzeEnergyAndPauses(features.getEnergyTimeSeries(), result, scoring);
+                return features;
+            });
+            result.setFillerWords(analyzeFillerWords(result, scoring));
 
             // Step 5: Calculate overall score and suggestions
-            result.setOverallScore(calculateOverallScore(
-                    result.getSpeechRate().getScore(),
-                    result.getIntonation().getScore(),
-                    result.getEnergy().getScore(),
-                    result.getPauses().getScore()
-            ));
+            result.setOverallScore(overallScore(result, scoring));
+            result.setScoringVersion(scoring.version());
+            storeFeatures(result, extractFeatures(audioData, analysisResults, result), job);
 //            result.setSuggestions(generateSuggestions(result));
 
             // Step 6: AI-powered analysis (async if possible)
 //            result.setAiAnalysis(getAIInsights(transcription.getFullText()));
 
             // Step 7: Generate charts for visual analysis
-            generateAnalysisCharts(result, analysisResults);
-            getVocabAnalysis(result);
+            generateAnalysisCharts(result, analysisResults, job);
+            job.run(Stage.VOCAB_LLM, () -> getVocabAnalysis(result));
 
             // Step 8: Create processing metrics
-            long totalTime = System.currentTimeMillis() - startTime;
             AnalysisResult.ProcessingMetrics metrics = new AnalysisResult.ProcessingMetrics();
-            metrics.setTotalProcessingTimeMs(totalTime);
-            metrics.setAudioLoadTimeMs(audioLoadTime);
-            metrics.setTranscriptionTimeMs(transcriptionTime);
-            metrics.setAnalysisTimeMs(analysisTime);
-            metrics.setMemoryUsedMb(getMemoryUsage());
+            PipelineMetrics.Usage usage = job.usage();
+            metrics.setTotalProcessingTimeMs(usage.wallNanos() / 1_000_000);
+            metrics.setCpuTimeMs(usage.cpuNanos() / 1_000_000);
+            metrics.setAllocatedBytes(usage.allocatedBytes());
+            metrics.setStageTimeMs(job.getStageTimesMs());
+            metrics.setStageCpuMs(job.getStageCpuMs());
+            metrics.setStageAllocatedBytes(job.getStageAllocatedBytes());
             result.setProcessingMetrics(metrics);
 
-            log.info("Analysis completed in {}ms for request: {}", totalTime, request.getId());
+            log.info("Analysis completed in {}ms for request: {}", metrics.getTotalProcessingTimeMs(), request.getId());
             return result;
 
         } catch (Exception e) {
@@ -208,11 +264,8 @@ public class SpeechAnalysisService {
     }
 
     public VocabAnalysis getVocabAnalysis(AnalysisResult result) throws Exception {
-        String data = aiService.getLlmAnalysis(result.getTranscription().getFullText());
-        JsonNode jsonData = LlmUtils.extractJsonFromLlm(data);
-
-        VocabAnalysis vocabAnalysis = new VocabAnalysis(jsonData);
-        System.out.println("vocab analysis: " + vocabAnalysis);     // Debug log
+        VocabAnalysis vocabAnalysis = vocabAnalysisService.analyze(result.getTranscription().getFullText());
+        log.debug("Vocab analysis: {}", vocabAnalysis);
 
         result.setVocabAnalysis(vocabAnalysis);
         return vocabAnalysis;
@@ -221,7 +274,7 @@ public class SpeechAnalysisService {
     /**
      * Optimized audio data loading with proper resource management
      */
-    private AudioData loadAudioData(byte[] audioBytes) {
+    AudioData loadAudioData(byte[] audioBytes) {
         AudioData audioData = new AudioData();
         try (ByteArrayInputStream bais = new ByteArrayInputStream(audioBytes);
              AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(bais)) {
@@ -251,7 +304,7 @@ public class SpeechAnalysisService {
     /**
      * Single-pass analysis that extracts all audio features in one go
      */
-    private AudioAnalysisResults performSinglePassAnalysis(AudioData audioData) throws UnsupportedAudioFileException {
+    AudioAnalysisResults performSinglePassAnalysis(AudioData audioData) throws UnsupportedAudioFileException {
         AudioAnalysisResults results = new AudioAnalysisResults();
 
         Queue<Double> pitchValues = new ConcurrentLinkedQueue<>();
@@ -325,13 +378,14 @@ public class SpeechAnalysisService {
     }
 
     // 1. Extracting details from transcript. 2. Creating segment list for chart later. 3. Calculating SpeechRate. 4. Also finding slowest & fastest part of speech suggesting nervous parts.
-    private void parseTranscriptionAndComputeSpeechRate(Map<String, Object> response, AnalysisResult analysisResult) {
+    private void parseTranscriptionAndComputeSpeechRate(TranscriptionResponse response, AnalysisResult analysisResult,
+                                                        ScoringModel scoring) {
         AnalysisResult.TranscriptionResult transcription = new AnalysisResult.TranscriptionResult();
         AnalysisResult.SpeechRateAnalysis speechRate = new AnalysisResult.SpeechRateAnalysis();
 
-        String fullText = (String) response.get("text");
+        String fullText = response.getText();
         transcription.setFullText(fullText != null ? fullText : "");
-        transcription.setLanguage((String) response.get("language"));
+        transcription.setLanguage(response.getLanguage());
 
         List<AnalysisResult.SpeechSegment> segments = new ArrayList<>();
         double minWpm = Double.MAX_VALUE;
@@ -339,17 +393,14 @@ public class SpeechAnalysisService {
         AnalysisResult.SpeechSegment slowest = null;
         AnalysisResult.SpeechSegment fastest = null;
 
-        if (response.containsKey("segments") && response.get("segments") instanceof List) {
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> segmentMaps = (List<Map<String, Object>>) response.get("segments");
-
+        if (response.getSegmentCount() > 0) {
             int startIndex = 0;
-            for (Map<String, Object> segmentData : segmentMaps) {
+            for (int i = 0; i < response.getSegmentCount(); i++) {
                 AnalysisResult.SpeechSegment segment = new AnalysisResult.SpeechSegment();
-                segment.setStart(((Number) segmentData.getOrDefault("start", 0.0)).doubleValue());
-                segment.setEnd(((Number) segmentData.getOrDefault("end", 1.0)).doubleValue());
+                segment.setStart(response.getSegmentStarts()[i]);
+                segment.setEnd(response.getSegmentEnds()[i]);
 
-                String text = (String) segmentData.getOrDefault("text", "");
+                String text = response.getSegmentTexts()[i];
                 segment.setStartIndex(startIndex);
                 int newEndIndex = startIndex + text.length();
                 segment.setEndIndex(newEndIndex);
@@ -358,6 +409,10 @@ public class SpeechAnalysisService {
                 double duration = segment.getEnd() - segment.getStart();
                 int wordCount = text.split("\\s+").length;
                 transcription.setNoOfWords(transcription.getNoOfWords() +  wordCount);
+                segments.add(segment);
+                if (duration <= 0) {
+                    continue;   // no timing to take a rate from, kept only for its text offsets
+                }
                 double wpm = ((double) wordCount / duration) * 60.0;
                 minWpm = Math.min(minWpm, wpm);
                 maxWpm = Math.max(maxWpm, wpm);
@@ -368,47 +423,155 @@ public class SpeechAnalysisService {
                     fastest = segment;
 
                 segment.setSpeechRate(wpm);
-                segments.add(segment);
             }
         } else if (fullText != null && !fullText.isEmpty()) {
             // Fallback: create a single segment for the entire text
             AnalysisResult.SpeechSegment segment = new AnalysisResult.SpeechSegment();
             segment.setStart(0.0);
-            double duration = ((Number) response.getOrDefault("duration", 0.0)).doubleValue();
+            double duration = response.getDuration();
             segment.setEnd(duration); // entire durataion
             segment.setStartIndex(0);
             segment.setEndIndex(fullText.length());
-            segment.setSpeechRate((fullText.split("\\s+").length / duration) * 60.0);
+            if (duration > 0)
+                segment.setSpeechRate((fullText.split("\\s+").length / duration) * 60.0);
             segments.add(segment);
         }
 
-        if (!segments.isEmpty()) {
-            double avgSpeechRate = segments.stream().mapToDouble(AnalysisResult.SpeechSegment::getSpeechRate).average().orElse(0.8);
+        scoreSpeechRate(speechRate, segments, transcription.getNoOfWords(), scoring);
+
+        speechRate.setMinWpm(minWpm);
+        speechRate.setMaxWpm(maxWpm);
+        speechRate.setSlowestSegment(slowest);
+        speechRate.setFastestSegment(fastest);
+        speechRate.setSegments(segments);
+
+        // Word timestamps give a far less noisy pace curve than variable-length segments
+        if (response.getWordCount() > 0) {
+            computeWindowedSpeechRate(response, transcription.getFullText(), speechRate);
+        }
+
+        analysisResult.setTranscription(transcription);
+        analysisResult.setSpeechRate(speechRate);
+    }
+
+    // Average pace over the transcript segments and its score, shared with rescoring from stored features
+    private void scoreSpeechRate(AnalysisResult.SpeechRateAnalysis speechRate, List<AnalysisResult.SpeechSegment> segments,
+                                 int noOfWords, ScoringModel scoring) {
+        // segments without a duration have no rate
+        List<AnalysisResult.SpeechSegment> timed = segments.stream().filter(s -> s.getEnd() > s.getStart()).toList();
+        if (!timed.isEmpty()) {
+            double avgSpeechRate = timed.stream().mapToDouble(AnalysisResult.SpeechSegment::getSpeechRate).average().orElse(0.8);
             speechRate.setAvgSpeechRate(avgSpeechRate);
-            double variance = segments.stream()
+            double variance = timed.stream()
                     .mapToDouble(s -> Math.pow(s.getSpeechRate() - speechRate.getAvgSpeechRate(), 2))
                     .average().orElse(0);
             speechRate.setStandardDeviation(Math.sqrt(variance));
 
             // Calculate score and feedback
-            speechRate.setCategory(calculateSpeechRateCategory(avgSpeechRate));
-            if (transcription.getNoOfWords() > 0)
-                speechRate.setScore(calculateSpeechRateScore(avgSpeechRate));
-            speechRate.setFeedback(generateSpeechRateFeedback(avgSpeechRate));
+            speechRate.setCategory(scoring.speechRateCategory(avgSpeechRate));
+            if (noOfWords > 0)
+                speechRate.setScore(scoring.speechRateScore(avgSpeechRate));
+            speechRate.setFeedback(generateSpeechRateFeedback(speechRate.getCategory()));
         } else
             speechRate.setAvgSpeechRate(0);
+    }
 
-        speechRate.setMinWpm(minWpm);
-        speechRate.setMaxWpm(maxWpm);
-        speechRate.setSlowestSegment(slowest);
-        speechRate.setFastestSegment(fastest);
-        speechRate.setSegments(segments);
+    /**
+     * Sliding-window speech rate over word timestamps. Two pointers move forward over the word
+     * midpoints as the window slides, so the whole fixed-step series costs O(words + steps).
+     * Min/max WPM and the slowest/fastest parts are taken from windows inside the spoken span.
+     */
+    private void computeWindowedSpeechRate(TranscriptionResponse response, String fullText,
+                                           AnalysisResult.SpeechRateAnalysis speechRate) {
+        int n = response.getWordCount();
+        double[] wordStarts = response.getWordStarts();
+        double[] wordEnds = response.getWordEnds();
+        double[] mid = new double[n];
+        int[] charStart = new int[n];
+        int[] charEnd = new int[n];
+        int cursor = 0;
+        for (int i = 0; i < n; i++) {
+            mid[i] = (wordStarts[i] + wordEnds[i]) / 2;
+
+            // locate the word in the transcript so windows map back to text offsets
+            String text = response.getWords()[i].trim();
+            int found = text.isEmpty() ? -1 : fullText.indexOf(text, cursor);
+            if (found >= 0 && found - cursor < 64) {
+                cursor = found + text.length();
+                charStart[i] = found;
+            } else {
+                charStart[i] = cursor;
+            }
+            charEnd[i] = cursor;
+        }
+        double duration = response.getDuration() > 0 ? response.getDuration() : wordEnds[n - 1];
 
-        analysisResult.setTranscription(transcription);
-        analysisResult.setSpeechRate(speechRate);
+        double half = SPEECH_RATE_WINDOW_SECONDS / 2;
+        double spokenFrom = wordStarts[0];
+        double spokenTo = wordEnds[n - 1];
+        boolean spanFitsWindow = spokenTo - spokenFrom >= SPEECH_RATE_WINDOW_SECONDS;
+
+        int steps = (int) Math.floor(duration / SPEECH_RATE_STEP_SECONDS) + 1;
+        double[] series = new double[steps];
+        AnalysisResult.SpeechSegment slowest = null;
+        AnalysisResult.SpeechSegment fastest = null;
+
+        int left = 0;
+        int right = 0;
+        for (int k = 0; k < steps; k++) {
+            double center = k * SPEECH_RATE_STEP_SECONDS;
+            double from = Math.max(0, center - half);
+            double to = Math.min(duration, center + half);
+            while (left < n && mid[left] < from) left++;
+            if (right < left) right = left;
+            while (right < n && mid[right] < to) right++;
+
+            int count = right - left;
+            double length = to - from;
+            double wpm = length > 0 ? count / length * 60.0 : 0;
+            series[k] = wpm;
+
+            boolean inside = spanFitsWindow ? from >= spokenFrom && to <= spokenTo : count > 0;
+            if (!inside) continue;
+
+            if (slowest == null || wpm < slowest.getSpeechRate())
+                slowest = windowSegment(from, to, wpm, left, right, charStart, charEnd);
+            if (fastest == null || wpm > fastest.getSpeechRate())
+                fastest = windowSegment(from, to, wpm, left, right, charStart, charEnd);
+        }
+
+        speechRate.setWindowSeconds(SPEECH_RATE_WINDOW_SECONDS);
+        speechRate.setStepSeconds(SPEECH_RATE_STEP_SECONDS);
+        speechRate.setWindowedWpm(series);
+        if (slowest != null) {
+            speechRate.setMinWpm(slowest.getSpeechRate());
+            speechRate.setSlowestSegment(slowest);
+        }
+        if (fastest != null) {
+            speechRate.setMaxWpm(fastest.getSpeechRate());
+            speechRate.setFastestSegment(fastest);
+        }
+    }
+
+    private AnalysisResult.SpeechSegment windowSegment(double from, double to, double wpm, int left, int right,
+                                                       int[] charStart, int[] charEnd) {
+        AnalysisResult.SpeechSegment segment = new AnalysisResult.SpeechSegment();
+        segment.setStart(from);
+        segment.setEnd(to);
+        segment.setSpeechRate(wpm);
+        if (right > left) {
+            segment.setStartIndex(charStart[left]);
+            segment.setEndIndex(charEnd[right - 1]);
+        } else {
+            int at = left < charStart.length ? charStart[left] : charEnd[charEnd.length - 1];
+            segment.setStartIndex(at);
+            segment.setEndIndex(at);
+        }
+        return segment;
     }
 
-    private AnalysisResult.IntonationAnalysis calculateIntonationAnalysis(List<TimeValuePair> pitchTimeSeries, double[] pitchValues, double duration) {
+    AnalysisResult.IntonationAnalysis calculateIntonationAnalysis(List<TimeValuePair> pitchTimeSeries, double[] pitchValues,
+                                                                  double duration, ScoringModel scoring) {
         AnalysisResult.IntonationAnalysis analysis = new AnalysisResult.IntonationAnalysis();
         if (pitchTimeSeries.isEmpty()) return analysis;
 
@@ -444,16 +607,16 @@ public class SpeechAnalysisService {
         analysis.setPitchVariation(pitchVariation);
 
         // Score & feedback
-        analysis.setPitchVariationScore(calculatePitchVariationScore(pitchValues, analysis.getAveragePitch(), stdDev));
-        analysis.setCategory(calculateIntonationCategory(analysis.getPitchVariationScore()));
+        analysis.setPitchVariationScore(scoring.pitchVariationScore(pitchValues, analysis.getAveragePitch(), stdDev));
+        analysis.setCategory(scoring.intonationCategory(analysis.getPitchVariationScore()));
         if (pitchValues.length > 0)
             analysis.setScore(analysis.getPitchVariationScore());
-        analysis.setFeedback(generateIntonationFeedback(analysis.getPitchVariationScore()));
+        analysis.setFeedback(generateIntonationFeedback(analysis.getCategory()));
         return analysis;
     }
 
 //    1. Computes Energy. 2. Analyzes Awkward Pauses (silences, low energy).
-    private void analyzeEnergyAndPauses(List<TimeValuePair> energyTimeSeries, AnalysisResult result) {
+    void analyzeEnergyAndPauses(List<TimeValuePair> energyTimeSeries, AnalysisResult result, ScoringModel scoring) {
         int totalPauses = 0;
         int n = energyTimeSeries.size();
 
@@ -518,10 +681,10 @@ public class SpeechAnalysisService {
         energyAnalysis.setMinEnergy(energyMin);
         energyAnalysis.setMaxEnergy(energyMax);
         energyAnalysis.setEnergyVariation(avgEnergy != 0 ? stdDev / avgEnergy : 0);
-        energyAnalysis.setCategory(calculateEnergyCategory(avgEnergy));
+        energyAnalysis.setCategory(scoring.energyCategory(avgEnergy));
         if (!energyTimeSeries.isEmpty())
-            energyAnalysis.setScore(calculateEnergyScore(avgEnergy));
-        energyAnalysis.setFeedback(generateEnergyFeedback(avgEnergy));
+            energyAnalysis.setScore(scoring.energyScore(avgEnergy));
+        energyAnalysis.setFeedback(generateEnergyFeedback(energyAnalysis.getCategory()));
 
         // --- Fill PauseAnalysis ---
         AnalysisResult.PauseAnalysis pauseAnalysis = new AnalysisResult.PauseAnalysis();
@@ -532,37 +695,73 @@ public class SpeechAnalysisService {
             pauseAnalysis.setLongestPause(longestPause);
         }
         double pauseRate = totalPauses / result.getAudioMetadata().getDurationSeconds();
-        pauseAnalysis.setCategory(calculatePauseCategory(pauseRate));
+        pauseAnalysis.setCategory(scoring.pauseCategory(pauseRate));
         if (result.getIntonation().getAveragePitch() > 0)
-            pauseAnalysis.setScore(calculatePauseScore(pauseRate));
-        pauseAnalysis.setFeedback(generatePauseFeedback(pauseRate));
+            pauseAnalysis.setScore(scoring.pauseScore(pauseRate));
+        pauseAnalysis.setFeedback(generatePauseFeedback(pauseAnalysis.getCategory()));
 
         // --- Set results ---
         result.setEnergy(energyAnalysis);
         result.setPauses(pauseAnalysis);
     }
 
-    private String calculateSpeechRateCategory(double avgSpeechRate) {
-        if (avgSpeechRate < 100) return "very slow";
-        if (avgSpeechRate < 130) return "slow";
-        if (avgSpeechRate > 200) return "very fast";
-        if (avgSpeechRate > 175) return "fast";
-        return "good";
+    // Finds filler words and disfluencies in one pass over the transcript and maps them to time via the segments
+    AnalysisResult.FillerWordAnalysis analyzeFillerWords(AnalysisResult result, ScoringModel scoring) {
+        String text = result.getTranscription().getFullText();
+        List<AnalysisResult.SpeechSegment> segments = result.getSpeechRate().getSegments();
+
+        List<AnalysisResult.FillerOccurrence> occurrences = new ArrayList<>();
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        FILLER_MATCHER.search(text, (pattern, start, end) -> {
+            String filler = FILLER_PATTERNS.get(pattern);
+            boolean boundedStart = !Character.isLetter(filler.charAt(0)) || start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1));
+            boolean boundedEnd = !Character.isLetter(filler.charAt(filler.length() - 1)) || end == text.length() || !Character.isLetterOrDigit(text.charAt(end));
+            if (boundedStart && boundedEnd) {
+                String word = FILLER_LABELS.get(pattern);
+                occurrences.add(new AnalysisResult.FillerOccurrence(word, start, end, 0));
+                counts.merge(word, 1, Integer::sum);
+            }
+        });
+        occurrences.sort(Comparator.comparingInt(AnalysisResult.FillerOccurrence::getStartIndex));
+
+        // occurrences and segments are both ordered by text offset, so one forward walk maps them all
+        int s = 0;
+        for (AnalysisResult.FillerOccurrence occurrence : occurrences) {
+            if (segments == null || segments.isEmpty()) break;
+            while (s < segments.size() - 1 && occurrence.getStartIndex() >= segments.get(s).getEndIndex()) s++;
+            AnalysisResult.SpeechSegment segment = segments.get(s);
+            int length = segment.getEndIndex() - segment.getStartIndex();
+            double fraction = length > 0 ? Math.max(0, Math.min(1, (occurrence.getStartIndex() - segment.getStartIndex()) / (double) length)) : 0;
+            occurrence.setTime(segment.getStart() + fraction * (segment.getEnd() - segment.getStart()));
+        }
+
+        AnalysisResult.FillerWordAnalysis analysis = new AnalysisResult.FillerWordAnalysis();
+        analysis.setTotalFillers(occurrences.size());
+        analysis.setCounts(counts);
+        analysis.setOccurrences(occurrences);
+        scoreFillerWords(analysis, result, scoring);
+        return analysis;
+    }
+
+    private void scoreFillerWords(AnalysisResult.FillerWordAnalysis analysis, AnalysisResult result, ScoringModel scoring) {
+        double minutes = result.getAudioMetadata().getDurationSeconds() / 60.0;
+        double fillersPerMinute = minutes > 0 ? analysis.getTotalFillers() / minutes : 0;
+        analysis.setFillersPerMinute(fillersPerMinute);
+        analysis.setCategory(scoring.fillerCategory(fillersPerMinute));
+        if (result.getTranscription().getNoOfWords() > 0)
+            analysis.setScore(scoring.fillerScore(fillersPerMinute));
+        analysis.setFeedback(generateFillerFeedback(analysis.getCategory()));
     }
 
-    private double calculateSpeechRateScore(double avgSpeechRate) {
-        String category = calculateSpeechRateCategory(avgSpeechRate);
+    private String generateFillerFeedback(String category) {
         return switch (category) {
-            case "good" -> 50 + (avgSpeechRate - 130) * (20.0 / 45);        // 130-175
-            case "slow" -> 30 + (avgSpeechRate - 100) * (20.0 / 30);        // 100-130
-            case "fast" -> 50 + (avgSpeechRate - 175) * (20.0 / 25);        // 175-200
-            case "very slow" -> Math.max(0, 30 - (100 - avgSpeechRate) * (30.0 / 100));
-            default -> Math.min(100, 70 + (avgSpeechRate - 200) * (30.0 / 100)); // very fast
+            case "minimal" -> "Clean delivery with hardly any filler words.";
+            case "moderate" -> "Some filler words — try replacing them with a short silent pause.";
+            default -> "Frequent fillers like \"um\" and \"you know\" distract listeners; pause instead of filling silence.";
         };
     }
 
-    private String generateSpeechRateFeedback(double avgSpeechRate) {
-        String category = calculateSpeechRateCategory(avgSpeechRate);
+    private String generateSpeechRateFeedback(String category) {
         return switch (category) {
             case "very slow" -> "Increase your pace to make the speech more engaging.";
             case "slow" -> "Speed up slightly to keep the speech more dynamic.";
@@ -572,38 +771,7 @@ public class SpeechAnalysisService {
         };
     }
 
-    public static double calculatePitchVariationScore(double[] valid, double mean, double stdDev) {
-        if (valid.length == 0) return 0.0; // no voiced frames
-
-        double zScore = (stdDev - 40) / 40; // Z-score vs average expressive speakers
-        double score;
-        if (stdDev < 20)
-            score = stdDev / 20 * 0.5;  // too monotone → penalize heavily   // max 0.5
-        else if (stdDev > 80)
-            score = 80 / stdDev * 0.5; // too erratic → penalize // drops towards 0
-        else
-            score = 1.0 / (1.0 + Math.abs(zScore)); // good variation → scale around z-score
-
-        return Math.max(0.0, Math.min(1.0, score)) * 100;   // clamp 0–1
-    }
-
-    private String calculateIntonationCategory(double score) {
-        if (score > 50) return "high";
-        if (score >= 25) return "good";
-        return "low";
-    }
-
-    private double calculateIntonationScore(double score) {
-        String category = calculateIntonationCategory(score);
-        return switch (category) {
-            case "good" -> 50 + (score - 25) * 2;
-            case "low" -> (score / 25) * 50;
-            default -> 100 - (score - 50);
-        };
-    }
-
-    private String generateIntonationFeedback(double score) {
-        String category = calculateIntonationCategory(score);
+    private String generateIntonationFeedback(String category) {
         return switch (category) {
             case "high" -> "Tone is too exaggerated — reduce variation for clarity.";
             case "good" -> "Good pitch variation! The speaker uses dynamic pitch changes for engagement.";
@@ -611,27 +779,7 @@ public class SpeechAnalysisService {
         };
     }
 
-    private String calculateEnergyCategory(double avgEnergy) {
-        if (avgEnergy < 0.04) return "low";
-        if (avgEnergy > 0.08) return "high";
-        return "good";
-    }
-
-    private double calculateEnergyScore(double avgEnergy) {
-        String category = calculateEnergyCategory(avgEnergy);
-
-        double rawScore = switch (category) {
-            case "good" -> 70 + (avgEnergy - 0.04) * (30.0 / 0.04);
-            case "low"  -> 30 + (avgEnergy - 0.02) * (40.0 / 0.02);
-            default     -> 70 - (avgEnergy - 0.08) * (40.0 / 0.02);
-        };
-
-        return Math.max(0, Math.min(100, rawScore));
-    }
-
-
-    private String generateEnergyFeedback(double avgEnergy) {
-        String category = calculateEnergyCategory(avgEnergy);
+    private String generateEnergyFeedback(String category) {
         return switch (category) {
             case "low" -> "Increase your volume to project more confidence.";
             case "good" -> "Good energy level — sounds confident and clear.";
@@ -639,26 +787,7 @@ public class SpeechAnalysisService {
         };
     }
 
-    // Category
-    private String calculatePauseCategory(double pauseRate) {
-        if (pauseRate < 2) return "less pauses";
-        if (pauseRate > 8) return "many pauses";
-        return "excellent";
-    }
-
-    // Percent score
-    private double calculatePauseScore(double pauseRate) {
-        String category = calculatePauseCategory(pauseRate);
-        return switch (category) {
-            case "less pauses" -> 90 - (pauseRate * (40.0 / 2));
-            case "excellent" -> 70 - (pauseRate - 2) * (20.0 / 6);
-            default -> 50 - (pauseRate - 8) * (30.0 / 4); // many pauses
-        };
-    }
-
-    // Feedback
-    private String generatePauseFeedback(double pauseRate) {
-        String category = calculatePauseCategory(pauseRate);
+    private String generatePauseFeedback(String category) {
         return switch (category) {
             case "less pauses" -> "Minimal pauses convey strong confidence and authority.";
             case "excellent" -> "Well-balanced pauses — projecting confidence and clarity.";
@@ -667,15 +796,16 @@ public class SpeechAnalysisService {
     }
 
 
+    // Package-private, like the DSP stages using them, so SpeechAnalysisBenchmark can drive each stage alone
     @Data
-    private static class AudioData {
+    static class AudioData {
         private double[] samples;
         private int sampleRate;
         private double duration;
     }
 
     @Data
-    private static class AudioAnalysisResults {
+    static class AudioAnalysisResults {
         private double[] pitchValues;
         private double[] energyValues;
         private List<TimeValuePair> pitchTimeSeries;
@@ -697,11 +827,6 @@ public class SpeechAnalysisService {
         return floatArray;
     }
 
-    private long getMemoryUsage() {
-        Runtime runtime = Runtime.getRuntime();
-        return (runtime.totalMemory() - runtime.freeMemory()) / 1024 / 1024; // MB
-    }
-
     // Placeholder methods that would need full implementation
     private AnalysisResult.AudioMetadata createAudioMetadata(AudioData audioData, String contentType, long size) {
         AnalysisResult.AudioMetadata metadata = new AnalysisResult.AudioMetadata();
@@ -713,33 +838,133 @@ public class SpeechAnalysisService {
         return metadata;
     }
 
-    public double calculateOverallScore(double speechRatePercent, double intonationPercent, double energyPercent, double pausesPercent) {
-        double part = 0.25;
-        double speechRateScore = part * speechRatePercent;
-        double intonationScore = part * intonationPercent;
-        double energyScore = part * energyPercent;
-        double confidenceScore = part * pausesPercent;
-        return speechRateScore + intonationScore + energyScore + confidenceScore;
+    private double overallScore(AnalysisResult result, ScoringModel scoring) {
+        return scoring.overallScore(
+                result.getSpeechRate().getScore(),
+                result.getIntonation().getScore(),
+                result.getEnergy().getScore(),
+                result.getPauses().getScore(),
+                result.getFillerWords().getScore()
+        );
+    }
+
+    /**
+     * Everything the scores are computed from, so {@link #scoreFeatures} can score the analysis
+     * again without the audio or the transcript
+     */
+    FeatureVector extractFeatures(AudioData audioData, AudioAnalysisResults audioAnalysisResults, AnalysisResult result) {
+        FeatureVector features = new FeatureVector();
+        features.setDurationSeconds(audioData.getDuration());
+        features.setSampleRate(audioData.getSampleRate());
+        features.setFrameStepSeconds((double) (BUFFER_SIZE - OVERLAP) / audioData.getSampleRate());
+
+        List<TimeValuePair> pitch = audioAnalysisResults.getPitchTimeSeries();
+        features.setPitchTimes(new float[pitch.size()]);
+        features.setPitchHz(new float[pitch.size()]);
+        for (int i = 0; i < pitch.size(); i++) {
+            features.getPitchTimes()[i] = (float) pitch.get(i).getTime();
+            features.getPitchHz()[i] = (float) pitch.get(i).getValue();
+        }
+        List<TimeValuePair> energy = audioAnalysisResults.getEnergyTimeSeries();
+        features.setEnergyTimes(new float[energy.size()]);
+        features.setEnergyRms(new float[energy.size()]);
+        for (int i = 0; i < energy.size(); i++) {
+            features.getEnergyTimes()[i] = (float) energy.get(i).getTime();
+            features.getEnergyRms()[i] = (float) energy.get(i).getValue();
+        }
+
+        List<AnalysisResult.SpeechSegment> segments = result.getSpeechRate().getSegments();
+        features.setSegmentStarts(segments.stream().mapToDouble(AnalysisResult.SpeechSegment::getStart).toArray());
+        features.setSegmentEnds(segments.stream().mapToDouble(AnalysisResult.SpeechSegment::getEnd).toArray());
+        features.setSegmentWpm(segments.stream().mapToDouble(AnalysisResult.SpeechSegment::getSpeechRate).toArray());
+        features.setWordCount(result.getTranscription().getNoOfWords());
+        features.setFillerCount(result.getFillerWords().getTotalFillers());
+        return features;
+    }
+
+    /**
+     * Score stored features with the given model the way {@link #analyzeAudio} scores a recording.
+     * Only the statistics, categories, scores and feedback of the result are filled.
+     */
+    AnalysisResult scoreFeatures(FeatureVector features, ScoringModel scoring) {
+        AnalysisResult result = new AnalysisResult();
+        AnalysisResult.AudioMetadata metadata = new AnalysisResult.AudioMetadata();
+        metadata.setDurationSeconds(features.getDurationSeconds());
+        metadata.setSampleRate(features.getSampleRate());
+        result.setAudioMetadata(metadata);
+        AnalysisResult.TranscriptionResult transcription = new AnalysisResult.TranscriptionResult();
+        transcription.setNoOfWords(features.getWordCount());
+        result.setTranscription(transcription);
+
+        List<AnalysisResult.SpeechSegment> segments = new ArrayList<>();
+        for (int i = 0; i < features.getSegmentWpm().length; i++) {
+            AnalysisResult.SpeechSegment segment = new AnalysisResult.SpeechSegment();
+            segment.setStart(features.getSegmentStarts()[i]);
+            segment.setEnd(features.getSegmentEnds()[i]);
+            segment.setSpeechRate(features.getSegmentWpm()[i]);
+            segments.add(segment);
+        }
+        AnalysisResult.SpeechRateAnalysis speechRate = new AnalysisResult.SpeechRateAnalysis();
+        speechRate.setSegments(segments);
+        scoreSpeechRate(speechRate, segments, features.getWordCount(), scoring);
+        result.setSpeechRate(speechRate);
+
+        List<TimeValuePair> pitchTimeSeries = timeSeries(features.getPitchTimes(), features.getPitchHz());
+        double[] pitchValues = pitchTimeSeries.stream().mapToDouble(TimeValuePair::getValue).toArray();
+        result.setIntonation(calculateIntonationAnalysis(pitchTimeSeries, pitchValues, features.getDurationSeconds(), scoring));
+        analyzeEnergyAndPauses(timeSeries(features.getEnergyTimes(), features.getEnergyRms()), result, scoring);
+
+        AnalysisResult.FillerWordAnalysis fillerWords = new AnalysisResult.FillerWordAnalysis();
+        fillerWords.setTotalFillers(features.getFillerCount());
+        scoreFillerWords(fillerWords, result, scoring);
+        result.setFillerWords(fillerWords);
+
+        result.setOverallScore(overallScore(result, scoring));
+        result.setScoringVersion(scoring.version());
+        return result;
+    }
+
+    // Losing the features only rules out rescoring this analysis later, it does not fail the analysis
+    private void storeFeatures(AnalysisResult result, FeatureVector features, PipelineMetrics.Job job) {
+        try {
+            byte[] data = FeatureVectorCodec.encode(features);
+            job.record(Stage.FEATURE_STORE, data.length, () -> {
+                byte[] pyramid = FeaturePyramid.build(new FeatureVectorCodec.Reader(data)).encode();
+                return analysisFeaturesRepository.save(new AnalysisFeatures(result.getRequestId(), result.getUserId(),
+                        FeatureVectorCodec.FORMAT_VERSION, data, pyramid, Instant.now()));
+            });
+        } catch (Exception e) {
+            log.error("Error storing features for request: {}", result.getRequestId(), e);
+        }
+    }
+
+    private static List<TimeValuePair> timeSeries(float[] times, float[] values) {
+        List<TimeValuePair> series = new ArrayList<>(times.length);
+        for (int i = 0; i < times.length; i++) {
+            series.add(new TimeValuePair(times[i], values[i]));
+        }
+        return series;
     }
 
     /**
      * Generate charts for all analysis results
      */
-    private void generateAnalysisCharts(AnalysisResult result, AudioAnalysisResults audioAnalysisResults) {
+    private void generateAnalysisCharts(AnalysisResult result, AudioAnalysisResults audioAnalysisResults, PipelineMetrics.Job job) {
         try {
             log.info("Starting chart generation for analysis result");
 
             // Generate speech rate chart
             if (result.getSpeechRate() != null) {
-                String speechRateChartUrl = chartGenerationService.generateSpeechRateChart(result.getSpeechRate());
+                XYChart chart = chartGenerationService.generateSpeechRateChart(result.getSpeechRate());
+                String speechRateChartUrl = renderAndUploadChart(chart, "speech_rate_chart_", job);
                 result.getSpeechRate().setChartUrl(speechRateChartUrl);
                 log.debug("Speech rate chart generated: {}", speechRateChartUrl);
             }
 
             // Generate intonation chart
-            if (result.getIntonation() != null) {
+            if (result.getIntonation() != null && intonationChart) {
                 XYChart chart = chartGenerationService.generateIntonationChart(result.getIntonation(), audioAnalysisResults.pitchTimeSeries);
-                String intonationChartUrl = chartGenerationService.uploadChartToCloudinary(chart, "intonation_chart_" + System.currentTimeMillis());
+                String intonationChartUrl = renderAndUploadChart(chart, "intonation_chart_", job);
                 result.getIntonation().setChartUrl(intonationChartUrl);
                 log.debug("Intonation chart generated: {}", intonationChartUrl);
             }
@@ -758,4 +983,21 @@ public class SpeechAnalysisService {
             // Don't fail the entire analysis if chart generation fails
         }
     }
+
+    /**
+     * Render and upload one chart as separately timed stages; a failed chart only loses its URL
+     */
+    private String renderAndUploadChart(XYChart chart, String filenamePrefix, PipelineMetrics.Job job) {
+        if (chart == null) {
+            return null;
+        }
+        try {
+            byte[] png = job.record(Stage.CHART_RENDER, () -> chartGenerationService.renderChartPng(chart));
+            return job.record(Stage.CHART_UPLOAD, png.length,
+                    () -> chartGenerationService.uploadChartPng(png, filenamePrefix + System.currentTimeMillis()));
+        } catch (Exception e) {
+            log.error("Error rendering or uploading chart {}", filenamePrefix, e);
+            return null;
+        }
+    }
 }
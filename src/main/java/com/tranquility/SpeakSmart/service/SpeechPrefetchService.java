@@ -0,0 +1,202 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Speculatively generates speeches for topics that were just handed to a user, so the
+ * usual topics-then-speech flow finds the speech ready.
+ * <p>
+ * Speculations run on a small low-priority pool and are keyed by user and normalized topic.
+ * Each user holds at most {@code max-per-user} of them, a newer batch pushes out the oldest,
+ * and unused ones expire after the TTL; dropped ones are cancelled so queued ones never reach
+ * the LLM.
+ * <p>
+ * A speculation that has not started when its speech is asked for is cancelled in favour of a
+ * live call. A running one is waited on for at most {@code grace-ms} and then cancelled, which
+ * interrupts its pool thread, before going live; so a speech takes at most that grace period
+ * longer than going live would.
+ */
+@Slf4j
+@Service
+public class SpeechPrefetchService {
+
+    private static final String ANONYMOUS = "anonymous";
+
+    // claimed by whichever comes first, the pool thread starting it or the user taking it unstarted
+    private record Speculation(String owner, FutureTask<String> speech, AtomicBoolean claimed, Instant expiresAt) {
+    }
+
+    private final Map<String, Speculation> speculations = new ConcurrentHashMap<>();
+    private final Map<String, Deque<String>> topicsByOwner = new HashMap<>();   // guarded by itself
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    @Qualifier("speechPrefetchTaskExecutor")
+    private Executor prefetchExecutor;
+
+    @Value("${speech-prefetch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${speech-prefetch.max-per-user:5}")
+    private int maxPerUser;
+
+    @Value("${speech-prefetch.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${speech-prefetch.grace-ms:1500}")
+    private long graceMs;
+
+    /**
+     * Start generating speeches for every topic in a {@code {"topics": [...]}} response
+     */
+    public void prefetch(String user, JsonNode topics) {
+        if (!enabled) {
+            return;
+        }
+        String owner = user != null ? user : ANONYMOUS;
+        for (JsonNode topic : topics.path("topics")) {
+            if (topic.isTextual() && !topic.asText().isBlank()) {
+                speculate(owner, topic.asText());
+            }
+        }
+    }
+
+    /**
+     * The speculated speech for this user's topic, if one is ready within the grace period. A
+     * speculation is removed either way, so it is used at most once.
+     */
+    public Optional<String> takeSpeculated(String user, String topic) {
+        String key = key(user, topic);
+        Speculation speculation = speculations.remove(key);
+        if (speculation == null) {
+            return Optional.empty();
+        }
+        forget(speculation.owner(), key);
+        if (speculation.expiresAt().isBefore(Instant.now()) || speculation.claimed().compareAndSet(false, true)) {
+            // expired, or still queued behind other speculative work where a live call is faster
+            speculation.speech().cancel(false);
+            return Optional.empty();
+        }
+        try {
+            String speech = speculation.speech().get(graceMs, TimeUnit.MILLISECONDS);
+            log.debug("Serving speculated speech for topic '{}'", topic);
+            return Optional.of(speech);
+        } catch (TimeoutException e) {
+            // the live call replaces it, do not let both run
+            speculation.speech().cancel(true);
+            log.debug("Speculated speech for topic '{}' not ready within {} ms, generating live", topic, graceMs);
+        } catch (ExecutionException | CancellationException e) {
+            log.warn("Speculated speech failed, generating live: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Speech for the topic from this user's speculation when there is one in time, otherwise from a live call
+     */
+    public String getSpeech(String user, String topic) throws Exception {
+        Optional<String> speculated = takeSpeculated(user, topic);
+        if (speculated.isPresent()) {
+            return speculated.get();
+        }
+        return aiService.generateSpeech(topic);
+    }
+
+    @Scheduled(fixedDelayString = "${speech-prefetch.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        Instant now = Instant.now();
+        speculations.entrySet().removeIf(entry -> {
+            if (entry.getValue().expiresAt().isBefore(now)) {
+                forget(entry.getValue().owner(), entry.getKey());
+                entry.getValue().speech().cancel(false);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void speculate(String owner, String topic) {
+        String key = key(owner, topic);
+        if (speculations.containsKey(key)) {
+            return;
+        }
+
+        synchronized (topicsByOwner) {
+            Deque<String> owned = topicsByOwner.computeIfAbsent(owner, o -> new ArrayDeque<>());
+            while (owned.size() >= maxPerUser) {
+                Speculation evicted = speculations.remove(owned.pollFirst());
+                if (evicted != null) {
+                    evicted.speech().cancel(false);
+                }
+            }
+            owned.addLast(key);
+        }
+
+        AtomicBoolean claimed = new AtomicBoolean();
+        // a FutureTask, unlike a CompletableFuture, interrupts its thread when cancelled while running
+        FutureTask<String> speech = new FutureTask<>(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                throw new CancellationException("Taken before it started");
+            }
+            return aiService.generateSpeech(topic);
+        });
+        try {
+            prefetchExecutor.execute(speech);
+        } catch (Exception e) {
+            // pool is saturated, speculation is best effort
+            forget(owner, key);
+            log.debug("Skipping speech speculation for '{}': {}", topic, e.getMessage());
+            return;
+        }
+        speculations.put(key, new Speculation(owner, speech, claimed, Instant.now().plusSeconds(ttlSeconds)));
+    }
+
+    private void forget(String owner, String key) {
+        synchronized (topicsByOwner) {
+            Deque<String> owned = topicsByOwner.get(owner);
+            if (owned != null) {
+                owned.remove(key);
+                if (owned.isEmpty()) {
+                    topicsByOwner.remove(owner);
+                }
+            }
+        }
+    }
+
+    /**
+     * Per user; the speech endpoints take the raw request body, which may or may not be a quoted JSON string
+     */
+    private static String key(String user, String topic) {
+        String key = topic.trim();
+        if (key.length() >= 2 && key.startsWith("\"") && key.endsWith("\"")) {
+            key = key.substring(1, key.length() - 1);
+        }
+        return (user != null ? user : ANONYMOUS) + '\n' + key.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
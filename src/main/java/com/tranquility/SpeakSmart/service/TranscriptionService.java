@@ -0,0 +1,258 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.tranquility.SpeakSmart.model.TranscriptionResponse;
+import com.tranquility.SpeakSmart.util.AudioUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Transcription engine for long recordings. The audio is cut at detected pauses into
+ * chunks of bounded length, the chunks are transcribed concurrently and the results are
+ * merged back into a single response with corrected timestamps, so
+ * latency is bounded by the longest chunk instead of the full recording.
+ */
+@Slf4j
+@Service
+public class TranscriptionService {
+
+    private static final int WINDOWS_PER_SECOND = 50;          // 20 ms energy windows
+    private static final double SILENCE_THRESHOLD = 0.01;      // same RMS threshold as pause detection
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    @Qualifier("transcriptionTaskExecutor")
+    private Executor transcriptionExecutor;
+
+    @Value("${transcription.chunk.max-seconds:60}")
+    private double maxChunkSeconds;
+
+    @Value("${transcription.chunk.min-seconds:20}")
+    private double minChunkSeconds;
+
+    public TranscriptionResponse transcribe(byte[] wavBytes, String fileName) throws Exception {
+        return transcribe(wavBytes, null, fileName);
+    }
+
+    /**
+     * Transcribe a recording, splitting it at pauses when it is longer than one chunk. The WAV
+     * is used to plan the cuts; when the compact 16 kHz FLAC from ingest is available it is
+     * what gets uploaded, otherwise the WAV itself is sent.
+     */
+    public TranscriptionResponse transcribe(byte[] wavBytes, byte[] compactAudio, String fileName) throws Exception {
+        String compactName = compactAudio != null ? compactFileName(fileName) : null;
+
+        AudioFormat format;
+        byte[] pcm;
+        try (AudioInputStream stream = AudioSystem.getAudioInputStream(new ByteArrayInputStream(wavBytes))) {
+            format = stream.getFormat();
+            pcm = stream.readAllBytes();
+        }
+
+        int frameSize = format.getFrameSize();
+        int totalFrames = pcm.length / frameSize;
+        float sampleRate = format.getSampleRate();
+        boolean splittable = isSplittable(format);
+        if (!splittable || totalFrames / sampleRate <= maxChunkSeconds) {
+            if (!splittable) {
+                log.info("Audio format {} not supported for chunked transcription, sending whole file", format);
+            }
+            return compactAudio != null
+                    ? aiService.transcribe(compactAudio, compactName)
+                    : aiService.transcribe(wavBytes, fileName);
+        }
+
+        List<int[]> chunks = planChunks(pcm, format);
+        log.info("Transcribing {} s of audio as {} parallel chunks", totalFrames / sampleRate, chunks.size());
+
+        List<byte[]> chunkPayloads = new ArrayList<>();
+        if (compactAudio != null) {
+            double[] boundaries = new double[chunks.size() + 1];
+            for (int i = 0; i < chunks.size(); i++) {
+                boundaries[i] = chunks.get(i)[0] / (double) sampleRate;
+            }
+            boundaries[chunks.size()] = totalFrames / (double) sampleRate;
+            chunkPayloads.addAll(AudioUtils.splitTranscriptionAudio(compactAudio, boundaries));
+        } else {
+            for (int[] chunk : chunks) {
+                chunkPayloads.add(encodeWav(pcm, chunk[0] * frameSize, chunk[1] * frameSize, format));
+            }
+        }
+
+        List<CompletableFuture<TranscriptionResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            byte[] payload = chunkPayloads.get(i);
+            String chunkName = "chunk" + i + "-" + (compactName != null ? compactName : fileName);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return aiService.transcribe(payload, chunkName);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, transcriptionExecutor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+
+        List<TranscriptionResponse> responses = new ArrayList<>();
+        for (CompletableFuture<TranscriptionResponse> future : futures) {
+            responses.add(future.join());
+        }
+        return mergeResponses(responses, chunks, sampleRate, totalFrames / (double) sampleRate);
+    }
+
+    private String compactFileName(String fileName) {
+        String base = fileName != null ? fileName : "audio";
+        int dot = base.lastIndexOf('.');
+        if (dot > 0) {
+            base = base.substring(0, dot);
+        }
+        return base + "." + AudioUtils.TRANSCRIPTION_AUDIO_EXTENSION;
+    }
+
+    private boolean isSplittable(AudioFormat format) {
+        return format.getChannels() == 1
+                && format.getSampleSizeInBits() == 16
+                && !format.isBigEndian()
+                && format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED;
+    }
+
+    /**
+     * Plan chunk boundaries as [startFrame, endFrame) pairs. Each cut is placed in the middle
+     * of the longest silence between min and max chunk length, or at the quietest window
+     * when that range contains no silence.
+     */
+    private List<int[]> planChunks(byte[] pcm, AudioFormat format) {
+        int totalFrames = pcm.length / 2;
+        int framesPerWindow = Math.max(1, (int) (format.getSampleRate() / WINDOWS_PER_SECOND));
+        int windowCount = (totalFrames + framesPerWindow - 1) / framesPerWindow;
+
+        double[] rms = new double[windowCount];
+        for (int w = 0; w < windowCount; w++) {
+            int from = w * framesPerWindow;
+            int to = Math.min(totalFrames, from + framesPerWindow);
+            double sum = 0;
+            for (int f = from; f < to; f++) {
+                double sample = (short) ((pcm[2 * f + 1] << 8) | (pcm[2 * f] & 0xff)) / 32768.0;
+                sum += sample * sample;
+            }
+            rms[w] = Math.sqrt(sum / (to - from));
+        }
+
+        int minWindows = (int) (minChunkSeconds * WINDOWS_PER_SECOND);
+        int maxWindows = (int) (maxChunkSeconds * WINDOWS_PER_SECOND);
+
+        List<int[]> chunks = new ArrayList<>();
+        int start = 0;
+        while (windowCount - start > maxWindows) {
+            int cut = findCut(rms, start + minWindows, start + maxWindows);
+            chunks.add(new int[]{start * framesPerWindow, cut * framesPerWindow});
+            start = cut;
+        }
+        chunks.add(new int[]{start * framesPerWindow, totalFrames});
+        return chunks;
+    }
+
+    private int findCut(double[] rms, int from, int to) {
+        int bestRunStart = -1;
+        int bestRunLength = 0;
+        int quietest = from;
+
+        int runStart = -1;
+        for (int w = from; w < to; w++) {
+            if (rms[w] < rms[quietest]) {
+                quietest = w;
+            }
+            if (rms[w] < SILENCE_THRESHOLD) {
+                if (runStart < 0) {
+                    runStart = w;
+                }
+                if (w - runStart + 1 > bestRunLength) {
+                    bestRunLength = w - runStart + 1;
+                    bestRunStart = runStart;
+                }
+            } else {
+                runStart = -1;
+            }
+        }
+        return bestRunLength > 0 ? bestRunStart + bestRunLength / 2 : quietest;
+    }
+
+    private byte[] encodeWav(byte[] pcm, int fromByte, int toByte, AudioFormat format) throws IOException {
+        int length = toByte - fromByte;
+        try (AudioInputStream chunkStream = new AudioInputStream(
+                new ByteArrayInputStream(pcm, fromByte, length), format, length / format.getFrameSize())) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length + 44);
+            AudioSystem.write(chunkStream, AudioFileFormat.Type.WAVE, out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Merge per-chunk responses into one. Segment and word timestamps are shifted by the chunk offset
+     * and the full text is rebuilt from the segment texts so that cumulative segment text
+     * lengths remain valid offsets into it.
+     */
+    private TranscriptionResponse mergeResponses(List<TranscriptionResponse> responses, List<int[]> chunks,
+                                                 float sampleRate, double totalDuration) {
+        TranscriptionResponse merged = new TranscriptionResponse();
+        StringBuilder fullText = new StringBuilder();
+
+        for (int i = 0; i < responses.size(); i++) {
+            TranscriptionResponse response = responses.get(i);
+            double offset = chunks.get(i)[0] / (double) sampleRate;
+            if (merged.getLanguage() == null) {
+                merged.setLanguage(response.getLanguage());
+            }
+
+            for (int w = 0; w < response.getWordCount(); w++) {
+                merged.addWord(response.getWords()[w],
+                        response.getWordStarts()[w] + offset, response.getWordEnds()[w] + offset);
+            }
+
+            if (response.getSegmentCount() > 0) {
+                for (int s = 0; s < response.getSegmentCount(); s++) {
+                    String text = separated(fullText, response.getSegmentTexts()[s]);
+                    merged.addSegment(response.getSegmentStarts()[s] + offset, response.getSegmentEnds()[s] + offset, text);
+                    fullText.append(text);
+                }
+            } else if (response.getText() != null && !response.getText().isBlank()) {
+                String text = separated(fullText, response.getText());
+                merged.addSegment(offset, chunks.get(i)[1] / (double) sampleRate, text);
+                fullText.append(text);
+            }
+        }
+
+        merged.setDuration(totalDuration);
+        merged.setText(fullText.toString());
+        return merged;
+    }
+
+    private String separated(StringBuilder fullText, String text) {
+        if (fullText.length() > 0 && !text.isEmpty() && !Character.isWhitespace(text.charAt(0))) {
+            return " " + text;
+        }
+        return text;
+    }
+}
@@ -0,0 +1,205 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.tranquility.SpeakSmart.model.VocabAnalysis;
+import com.tranquility.SpeakSmart.util.TextAnalytics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Vocabulary analysis of a transcript. Repeated words and long sentences are computed
+ * locally; grammar, rewrites and word meanings come from the LLM.
+ * <p>
+ * Transcripts over the token budget are split at sentence boundaries and the chunks are
+ * analysed concurrently (map), then the findings are merged in a fixed order (reduce), so
+ * latency stays close to that of a single chunk and rewrites are never cut off by the
+ * completion limit.
+ */
+@Slf4j
+@Service
+public class VocabAnalysisService {
+
+    private static final int REPEATED_WORDS_LIMIT = 10;
+    private static final int LONG_SENTENCES_LIMIT = 5;
+    private static final int LONG_SENTENCE_MIN_WORDS = 20;
+    private static final int GRAMMATICAL_ERRORS_LIMIT = 5;
+    private static final int MEANINGS_LIMIT = 5;
+
+    private static final int CHARS_PER_TOKEN = 4;   // rough estimate for English text
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    @Qualifier("vocabAnalysisTaskExecutor")
+    private Executor vocabAnalysisExecutor;
+
+    @Value("${vocab-analysis.chunk-tokens:800}")
+    private int chunkTokens;
+
+    public VocabAnalysis analyze(String text) throws Exception {
+        List<TextAnalytics.WordCount> repeatedWords = TextAnalytics.topRepeatedWords(text, REPEATED_WORDS_LIMIT);
+        List<String> longSentences = TextAnalytics.longestSentences(text, LONG_SENTENCES_LIMIT, LONG_SENTENCE_MIN_WORDS);
+
+        List<List<String>> chunks = chunkSentences(TextAnalytics.splitSentences(text));
+        List<VocabAnalysis.LlmOutput> outputs;
+        List<List<String>> chunkLongSentences = new ArrayList<>();
+        if (chunks.size() <= 1) {
+            chunkLongSentences.add(longSentences);
+            outputs = List.of(aiService.getLlmAnalysis(text, longSentences));
+        } else {
+            log.info("Vocab analysis of {} estimated tokens split into {} chunks", estimateTokens(text), chunks.size());
+            Set<String> remaining = new HashSet<>(longSentences);
+            for (List<String> chunk : chunks) {
+                List<String> own = new ArrayList<>();
+                for (String sentence : chunk) {
+                    if (remaining.remove(sentence)) {
+                        own.add(sentence);
+                    }
+                }
+                chunkLongSentences.add(own);
+            }
+            outputs = analyzeChunks(chunks, chunkLongSentences);
+        }
+
+        VocabAnalysis vocabAnalysis = new VocabAnalysis();
+        vocabAnalysis.setRepeatedWords(repeatedWords.stream()
+                .map(w -> new VocabAnalysis.RepeatedWord(w.word(), w.count()))
+                .toList());
+        vocabAnalysis.setLongSentences(mergeLongSentences(longSentences, chunkLongSentences, outputs));
+        vocabAnalysis.setGrammaticalErrors(mergeRanked(outputs, VocabAnalysis.LlmOutput::grammaticalErrors,
+                VocabAnalysis.GrammaticalError::sentence, GRAMMATICAL_ERRORS_LIMIT));
+        vocabAnalysis.setMeanings(mergeRanked(outputs, VocabAnalysis.LlmOutput::meanings,
+                VocabAnalysis.WordMeaning::word, MEANINGS_LIMIT));
+        vocabAnalysis.setModifiedText(joinTexts(outputs, VocabAnalysis.LlmOutput::modifiedText));
+        vocabAnalysis.setFancyText(joinTexts(outputs, VocabAnalysis.LlmOutput::fancyText));
+        return vocabAnalysis;
+    }
+
+    /**
+     * Greedily pack consecutive sentences into chunks of at most {@code chunkTokens} estimated
+     * tokens. A single sentence over the budget becomes a chunk of its own.
+     */
+    private List<List<String>> chunkSentences(List<String> sentences) {
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int currentTokens = 0;
+        for (String sentence : sentences) {
+            int tokens = estimateTokens(sentence);
+            if (!current.isEmpty() && currentTokens + tokens > chunkTokens) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                currentTokens = 0;
+            }
+            current.add(sentence);
+            currentTokens += tokens;
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private List<VocabAnalysis.LlmOutput> analyzeChunks(List<List<String>> chunks, List<List<String>> chunkLongSentences)
+            throws Exception {
+        List<CompletableFuture<VocabAnalysis.LlmOutput>> futures = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            String chunkText = String.join(" ", chunks.get(i));
+            List<String> longSentences = chunkLongSentences.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return aiService.getLlmAnalysis(chunkText, longSentences);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, vocabAnalysisExecutor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private List<VocabAnalysis.LongSentence> mergeLongSentences(List<String> longSentences,
+                                                                List<List<String>> chunkLongSentences,
+                                                                List<VocabAnalysis.LlmOutput> outputs) {
+        Map<String, String> suggestions = new HashMap<>();
+        for (int c = 0; c < outputs.size(); c++) {
+            List<String> chunkSuggestions = outputs.get(c).longSentenceSuggestions();
+            List<String> sentences = chunkLongSentences.get(c);
+            for (int i = 0; chunkSuggestions != null && i < Math.min(sentences.size(), chunkSuggestions.size()); i++) {
+                if (chunkSuggestions.get(i) != null) {
+                    suggestions.putIfAbsent(sentences.get(i), chunkSuggestions.get(i));
+                }
+            }
+        }
+
+        List<VocabAnalysis.LongSentence> merged = new ArrayList<>();
+        for (String sentence : longSentences) {
+            merged.add(new VocabAnalysis.LongSentence(sentence, suggestions.getOrDefault(sentence, "")));
+        }
+        return merged;
+    }
+
+    /**
+     * Interleave the chunks' lists by rank (every chunk's first item, then every chunk's second,
+     * ...), dropping case-insensitive duplicates, until {@code limit} items are collected. Each
+     * chunk's list is already ordered by importance, so this keeps the top findings of every part
+     * of the speech and gives the same result for the same chunk outputs.
+     */
+    private <T> List<T> mergeRanked(List<VocabAnalysis.LlmOutput> outputs,
+                                    Function<VocabAnalysis.LlmOutput, List<T>> list,
+                                    Function<T, String> identity, int limit) {
+        Map<String, T> merged = new LinkedHashMap<>();
+        int longest = outputs.stream().mapToInt(o -> list.apply(o) != null ? list.apply(o).size() : 0).max().orElse(0);
+        for (int rank = 0; rank < longest && merged.size() < limit; rank++) {
+            for (VocabAnalysis.LlmOutput output : outputs) {
+                List<T> items = list.apply(output);
+                if (items == null || rank >= items.size() || items.get(rank) == null || merged.size() >= limit) {
+                    continue;
+                }
+                T item = items.get(rank);
+                String key = identity.apply(item);
+                merged.putIfAbsent(key != null ? key.trim().toLowerCase(Locale.ROOT) : "", item);
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private String joinTexts(List<VocabAnalysis.LlmOutput> outputs, Function<VocabAnalysis.LlmOutput, String> text) {
+        StringBuilder joined = new StringBuilder();
+        for (VocabAnalysis.LlmOutput output : outputs) {
+            String part = text.apply(output);
+            if (part == null || part.isBlank()) {
+                continue;
+            }
+            if (joined.length() > 0) {
+                joined.append(' ');
+            }
+            joined.append(part.trim());
+        }
+        return joined.toString();
+    }
+
+    private static int estimateTokens(String text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+}
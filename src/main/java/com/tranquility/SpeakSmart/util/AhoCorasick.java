@@ -0,0 +1,149 @@
+package com.tranquility.SpeakSmart.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick multi-pattern matcher over transcript text. All patterns are found in a
+ * single left-to-right pass, one table lookup per character.
+ * <p>
+ * Matching is case-insensitive over a small alphabet: letters a-z, whitespace (any
+ * whitespace char matches a space in a pattern), apostrophes and commas. Any other
+ * character resets the automaton, so patterns never match across it.
+ */
+public class AhoCorasick {
+
+    @FunctionalInterface
+    public interface MatchListener {
+        /**
+         * @param start index of the first matched character
+         * @param end   index after the last matched character
+         */
+        void onMatch(int patternIndex, int start, int end);
+    }
+
+    private static final int ALPHABET_SIZE = 29;
+
+    private final int[] patternLengths;
+    private int[][] transitions;
+    private int[] patternAt;        // pattern ending exactly at this node, or -1
+    private int[] dictionaryLink;   // nearest node on the failure chain that ends a pattern, or -1
+    private int nodeCount;
+
+    public AhoCorasick(List<String> patterns) {
+        patternLengths = new int[patterns.size()];
+        int capacity = 1;
+        for (String pattern : patterns) {
+            capacity += pattern.length();
+        }
+        transitions = new int[capacity][];
+        patternAt = new int[capacity];
+        dictionaryLink = new int[capacity];
+        Arrays.fill(patternAt, -1);
+        Arrays.fill(dictionaryLink, -1);
+        transitions[0] = newRow();
+        nodeCount = 1;
+
+        for (int p = 0; p < patterns.size(); p++) {
+            insert(patterns.get(p), p);
+        }
+        buildFailureLinks();
+    }
+
+    /**
+     * Report every occurrence of every pattern in the text, ordered by end position
+     */
+    public void search(CharSequence text, MatchListener listener) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int symbol = symbolOf(text.charAt(i));
+            if (symbol < 0) {
+                state = 0;
+                continue;
+            }
+            state = transitions[state][symbol];
+            int node = patternAt[state] >= 0 ? state : dictionaryLink[state];
+            while (node >= 0) {
+                int pattern = patternAt[node];
+                listener.onMatch(pattern, i + 1 - patternLengths[pattern], i + 1);
+                node = dictionaryLink[node];
+            }
+        }
+    }
+
+    private void insert(String pattern, int index) {
+        if (pattern.isEmpty()) {
+            throw new IllegalArgumentException("Empty pattern");
+        }
+        int state = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            int symbol = symbolOf(pattern.charAt(i));
+            if (symbol < 0) {
+                throw new IllegalArgumentException("Unsupported character in pattern: " + pattern);
+            }
+            if (transitions[state][symbol] == 0) {
+                transitions[nodeCount] = newRow();
+                transitions[state][symbol] = nodeCount++;
+            }
+            state = transitions[state][symbol];
+        }
+        patternAt[state] = index;
+        patternLengths[index] = pattern.length();
+    }
+
+    /**
+     * Breadth-first construction of failure links, folded directly into the transition
+     * table so that search never has to follow them
+     */
+    private void buildFailureLinks() {
+        int[] failure = new int[nodeCount];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            int child = transitions[0][symbol];
+            if (child != 0) {
+                queue.add(child);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int fail = failure[state];
+            dictionaryLink[state] = patternAt[fail] >= 0 ? fail : dictionaryLink[fail];
+
+            for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+                int child = transitions[state][symbol];
+                if (child != 0) {
+                    failure[child] = transitions[fail][symbol];
+                    queue.add(child);
+                } else {
+                    transitions[state][symbol] = transitions[fail][symbol];
+                }
+            }
+        }
+    }
+
+    private static int[] newRow() {
+        return new int[ALPHABET_SIZE];
+    }
+
+    private static int symbolOf(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (Character.isWhitespace(c)) {
+            return 26;
+        }
+        if (c == '\'' || c == '’') {
+            return 27;
+        }
+        if (c == ',') {
+            return 28;
+        }
+        return -1;
+    }
+}
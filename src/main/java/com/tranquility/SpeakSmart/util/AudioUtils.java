@@ -12,10 +12,16 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Slf4j
 public class AudioUtils {
 
+    public static final String TRANSCRIPTION_AUDIO_EXTENSION = "flac";
+    public static final String TRANSCRIPTION_AUDIO_CONTENT_TYPE = "audio/flac";
+
     public static ValidationResult validateAudioFile(MultipartFile file) {
         ValidationResult result = new ValidationResult();
 
@@ -63,7 +69,7 @@ public class AudioUtils {
             }
             log.info("Content type validation passed: {}", contentType);
 
-            result.setAudioFile(convertAudioToWav(file.getBytes()));
+            convertAudioForIngest(file.getBytes(), result);
             // Try to get audio duration
             log.info("Attempting to read audio stream for duration calculation...");
             try {
@@ -135,25 +141,77 @@ public class AudioUtils {
     }
 
     public static byte[] convertAudioToWav(byte[] audioBytes) throws IOException, InterruptedException {
-        File inputTempFile = File.createTempFile("upload-", ".tmp");
-        try (FileOutputStream fos = new FileOutputStream(inputTempFile)) {
-            fos.write(audioBytes);
-        }
+        return transcode(audioBytes, List.of(WAV_OUTPUT)).get(0);
+    }
 
-        File outputFile = File.createTempFile("converted-", ".wav");
-        String[] command = {"ffmpeg", "-y", "-i", inputTempFile.getAbsolutePath(), "-ar", "44100", "-ac", "1",
-                outputFile.getAbsolutePath()
-        };
+    /**
+     * Decode the upload once and produce both the full-rate WAV used for DSP and the compact
+     * 16 kHz mono FLAC sent to Whisper (which resamples to 16 kHz internally anyway).
+     */
+    public static void convertAudioForIngest(byte[] audioBytes, ValidationResult result) throws IOException, InterruptedException {
+        List<byte[]> outputs = transcode(audioBytes, List.of(WAV_OUTPUT, TRANSCRIPTION_OUTPUT));
+        result.setAudioFile(outputs.get(0));
+        result.setTranscriptionAudioFile(outputs.get(1));
+    }
 
-        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
-        int exitCode = process.waitFor();
-        if (exitCode != 0) {
-            throw new RuntimeException("Audio conversion failed, exit code: " + exitCode);
+    /**
+     * Cut compact transcription audio into consecutive pieces at the given boundaries (seconds,
+     * including 0 and the end), in a single ffmpeg run.
+     */
+    public static List<byte[]> splitTranscriptionAudio(byte[] audioBytes, double[] boundaries) throws IOException, InterruptedException {
+        List<FfmpegOutput> outputs = new ArrayList<>();
+        for (int i = 0; i + 1 < boundaries.length; i++) {
+            outputs.add(new FfmpegOutput(TRANSCRIPTION_AUDIO_EXTENSION,
+                    "-ss", String.valueOf(boundaries[i]), "-to", String.valueOf(boundaries[i + 1]),
+                    "-c:a", "flac"));
         }
+        return transcode(audioBytes, outputs);
+    }
+
+    private record FfmpegOutput(String extension, String... options) {
+    }
 
-        byte[] fileBytes = Files.readAllBytes(outputFile.getAbsoluteFile().toPath());
-        inputTempFile.delete();
-        outputFile.delete();
-        return fileBytes;
+    private static final FfmpegOutput WAV_OUTPUT = new FfmpegOutput("wav", "-ar", "44100", "-ac", "1");
+    private static final FfmpegOutput TRANSCRIPTION_OUTPUT = new FfmpegOutput(TRANSCRIPTION_AUDIO_EXTENSION,
+            "-ar", "16000", "-ac", "1", "-c:a", "flac");
+
+    /**
+     * Run ffmpeg once over the input and return the bytes of every requested output, in order
+     */
+    private static List<byte[]> transcode(byte[] audioBytes, List<FfmpegOutput> outputs) throws IOException, InterruptedException {
+        File inputTempFile = File.createTempFile("upload-", ".tmp");
+        List<File> outputFiles = new ArrayList<>();
+        try {
+            try (FileOutputStream fos = new FileOutputStream(inputTempFile)) {
+                fos.write(audioBytes);
+            }
+
+            List<String> command = new ArrayList<>(List.of("ffmpeg", "-y", "-loglevel", "error", "-i", inputTempFile.getAbsolutePath()));
+            for (FfmpegOutput output : outputs) {
+                File outputFile = File.createTempFile("converted-", "." + output.extension());
+                outputFiles.add(outputFile);
+                command.addAll(Arrays.asList(output.options()));
+                command.add(outputFile.getAbsolutePath());
+            }
+
+            // ffmpeg output is discarded so a chatty run can never block on a full pipe
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new RuntimeException("Audio conversion failed, exit code: " + exitCode);
+            }
+
+            List<byte[]> results = new ArrayList<>();
+            for (File outputFile : outputFiles) {
+                results.add(Files.readAllBytes(outputFile.toPath()));
+            }
+            return results;
+        } finally {
+            inputTempFile.delete();
+            outputFiles.forEach(File::delete);
+        }
     }
 }
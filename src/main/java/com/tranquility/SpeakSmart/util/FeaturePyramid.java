@@ -0,0 +1,226 @@
+package com.tranquility.SpeakSmart.util;
+
+import com.tranquility.SpeakSmart.util.FeatureVectorCodec.Series;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Min/max/mean of each stored series over buckets of 8, 64, 512 ... frames, so a chart of any
+ * time window can be drawn from a bounded number of points without reading every sample. Levels
+ * are added until one has at most {@value #TOP_LEVEL_BUCKETS} buckets; together they are about a
+ * seventh of the series. Buckets without samples (unvoiced stretches of pitch) are left out.
+ * <p>
+ * Encoded as a format byte, the frame step and per level the bucket indices as varint deltas,
+ * sample counts as varints and min/max/mean as float16, deflated.
+ */
+public class FeaturePyramid {
+
+    public static final int FORMAT_VERSION = 1;
+    public static final int FANOUT = 8;
+
+    private static final int TOP_LEVEL_BUCKETS = 16;
+
+    /**
+     * One resolution: bucket {@code i} covers frames {@code [buckets[i] * bucketFrames, (buckets[i] + 1) * bucketFrames)}
+     */
+    public record Level(int bucketFrames, long[] buckets, int[] counts, float[] min, float[] max, float[] mean) {
+
+        public int size() {
+            return buckets.length;
+        }
+    }
+
+    private final double frameStepSeconds;
+    private final Map<Series, List<Level>> levels;
+
+    private FeaturePyramid(double frameStepSeconds, Map<Series, List<Level>> levels) {
+        this.frameStepSeconds = frameStepSeconds;
+        this.levels = levels;
+    }
+
+    /**
+     * Build the pyramid of every series of an encoded feature vector, streaming its samples once
+     */
+    public static FeaturePyramid build(FeatureVectorCodec.Reader reader) throws IOException {
+        double step = reader.frameStepSeconds();
+        Map<Series, List<Level>> levels = new EnumMap<>(Series.class);
+        for (Series series : Series.values()) {
+            LevelBuilder base = new LevelBuilder(FANOUT);
+            reader.read(series, 0, Double.MAX_VALUE, (time, value) -> base.add(Math.round(time / step), 1, value, value, value));
+            List<Level> seriesLevels = new ArrayList<>();
+            Level level = base.build();
+            seriesLevels.add(level);
+            while (level.size() > TOP_LEVEL_BUCKETS) {
+                level = coarsen(level);
+                seriesLevels.add(level);
+            }
+            levels.put(series, seriesLevels);
+        }
+        return new FeaturePyramid(step, levels);
+    }
+
+    public double frameStepSeconds() {
+        return frameStepSeconds;
+    }
+
+    /**
+     * Levels of a series from the finest to the coarsest
+     */
+    public List<Level> levels(Series series) {
+        return levels.getOrDefault(series, List.of());
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(FORMAT_VERSION);
+        try (DataOutputStream out = new DataOutputStream(
+                new DeflaterOutputStream(bytes, new Deflater(Deflater.BEST_SPEED)))) {
+            out.writeDouble(frameStepSeconds);
+            out.writeByte(levels.size());
+            for (Map.Entry<Series, List<Level>> entry : levels.entrySet()) {
+                out.writeByte(entry.getKey().ordinal());
+                out.writeByte(entry.getValue().size());
+                for (Level level : entry.getValue()) {
+                    out.writeInt(level.bucketFrames());
+                    out.writeInt(level.size());
+                    long previous = 0;
+                    for (long bucket : level.buckets()) {
+                        FeatureVectorCodec.writeVarLong(out, bucket - previous);
+                        previous = bucket;
+                    }
+                    for (int count : level.counts()) {
+                        FeatureVectorCodec.writeVarLong(out, count);
+                    }
+                    for (float[] values : List.of(level.min(), level.max(), level.mean())) {
+                        for (float value : values) {
+                            out.writeShort(FeatureVectorCodec.toHalf(value));
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory write failed", e);     // cannot happen
+        }
+        return bytes.toByteArray();
+    }
+
+    public static FeaturePyramid decode(byte[] data) throws IOException {
+        if (data.length == 0 || data[0] != FORMAT_VERSION) {
+            throw new IOException("Unsupported feature pyramid format " + (data.length > 0 ? data[0] : -1));
+        }
+        ByteBuffer in;
+        try (InflaterInputStream inflating = new InflaterInputStream(new ByteArrayInputStream(data, 1, data.length - 1))) {
+            in = ByteBuffer.wrap(inflating.readAllBytes());
+        }
+        try {
+            double step = in.getDouble();
+            Map<Series, List<Level>> levels = new EnumMap<>(Series.class);
+            int seriesCount = in.get();
+            for (int s = 0; s < seriesCount; s++) {
+                Series series = Series.values()[in.get()];
+                int levelCount = in.get();
+                List<Level> seriesLevels = new ArrayList<>(levelCount);
+                for (int l = 0; l < levelCount; l++) {
+                    int bucketFrames = in.getInt();
+                    int size = in.getInt();
+                    long[] buckets = new long[size];
+                    long previous = 0;
+                    for (int i = 0; i < size; i++) {
+                        previous += FeatureVectorCodec.readVarLong(in);
+                        buckets[i] = previous;
+                    }
+                    int[] counts = new int[size];
+                    for (int i = 0; i < size; i++) {
+                        counts[i] = (int) FeatureVectorCodec.readVarLong(in);
+                    }
+                    seriesLevels.add(new Level(bucketFrames, buckets, counts, readHalves(in, size), readHalves(in, size), readHalves(in, size)));
+                }
+                levels.put(series, seriesLevels);
+            }
+            return new FeaturePyramid(step, levels);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Truncated feature pyramid", e);
+        }
+    }
+
+    private static Level coarsen(Level level) {
+        LevelBuilder builder = new LevelBuilder(level.bucketFrames() * FANOUT);
+        for (int i = 0; i < level.size(); i++) {
+            builder.add(level.buckets()[i] * level.bucketFrames(), level.counts()[i], level.min()[i], level.max()[i], level.mean()[i]);
+        }
+        return builder.build();
+    }
+
+    private static float[] readHalves(ByteBuffer in, int size) {
+        float[] values = new float[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = FeatureVectorCodec.fromHalf(in.getShort());
+        }
+        return values;
+    }
+
+    // Folds frames or finer buckets, in frame order, into buckets of bucketFrames
+    private static final class LevelBuilder {
+
+        private final int bucketFrames;
+        private long[] buckets = new long[64];
+        private int[] counts = new int[64];
+        private float[] min = new float[64];
+        private float[] max = new float[64];
+        private double[] sum = new double[64];
+        private int size;
+
+        LevelBuilder(int bucketFrames) {
+            this.bucketFrames = bucketFrames;
+        }
+
+        void add(long frame, int count, float min, float max, float mean) {
+            long bucket = frame / bucketFrames;
+            if (size == 0 || buckets[size - 1] != bucket) {
+                if (size == buckets.length) {
+                    grow();
+                }
+                buckets[size] = bucket;
+                this.min[size] = min;
+                this.max[size] = max;
+                size++;
+            }
+            int i = size - 1;
+            counts[i] += count;
+            this.min[i] = Math.min(this.min[i], min);
+            this.max[i] = Math.max(this.max[i], max);
+            sum[i] += (double) mean * count;
+        }
+
+        Level build() {
+            float[] mean = new float[size];
+            for (int i = 0; i < size; i++) {
+                mean[i] = (float) (sum[i] / counts[i]);
+            }
+            return new Level(bucketFrames, Arrays.copyOf(buckets, size), Arrays.copyOf(counts, size),
+                    Arrays.copyOf(min, size), Arrays.copyOf(max, size), mean);
+        }
+
+        private void grow() {
+            int capacity = buckets.length * 2;
+            buckets = Arrays.copyOf(buckets, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            min = Arrays.copyOf(min, capacity);
+            max = Arrays.copyOf(max, capacity);
+            sum = Arrays.copyOf(sum, capacity);
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.tranquility.SpeakSmart.util;
+
+import com.tranquility.SpeakSmart.model.FeatureVector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary form of a {@link FeatureVector}: the magic {@code SSFV} and a format version byte, then
+ * the body of that version. Readers keep accepting every format version written so far.
+ * <p>
+ * Format 2 stores the scalars and transcript segments as plain values, then each time series as
+ * deflated blocks of {@value #BLOCK_FRAMES} samples. Sample times are frame indices on the DSP hop
+ * grid, delta-encoded as varints (1 per byte for the energy series, small gaps for pitch), and
+ * values are float16 with the high and low bytes of a block stored apart, which deflates far
+ * better than interleaved. A directory of the blocks' frame ranges and offsets at the end lets a
+ * {@link Reader} inflate only the blocks a time range needs; a {@link Writer} streams blocks out as
+ * samples arrive.
+ * <p>
+ * Format 1 was the scalars and raw float/double arrays, deflated as one piece.
+ */
+public class FeatureVectorCodec {
+
+    public static final int FORMAT_VERSION = 2;
+
+    /**
+     * Samples per block, about half a minute of audio at 16 kHz
+     */
+    public static final int BLOCK_FRAMES = 1024;
+
+    private static final int MAGIC = 0x53534656;   // "SSFV"
+    private static final int HEADER_BYTES = 5;
+
+    public enum Series {
+        PITCH, ENERGY
+    }
+
+    @FunctionalInterface
+    public interface SampleConsumer {
+        void accept(double time, float value);
+    }
+
+    private FeatureVectorCodec() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if a series time is off the {@code frameStepSeconds} grid
+     */
+    public static byte[] encode(FeatureVector features) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new Writer(bytes, features)) {
+            writeSeries(writer, Series.PITCH, features.getPitchTimes(), features.getPitchHz(), features.getFrameStepSeconds());
+            writeSeries(writer, Series.ENERGY, features.getEnergyTimes(), features.getEnergyRms(), features.getFrameStepSeconds());
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory write failed", e);     // cannot happen
+        }
+        return bytes.toByteArray();
+    }
+
+    public static FeatureVector decode(byte[] data) throws IOException {
+        int version = version(data);
+        if (version == 1) {
+            return decodeV1(data);
+        }
+        if (version != 2) {
+            throw new IOException("Unsupported feature vector format " + version);
+        }
+        Reader reader = new Reader(data);
+        FeatureVector features = reader.scalars();
+        int pitchFrames = reader.frameCount(Series.PITCH);
+        features.setPitchTimes(new float[pitchFrames]);
+        features.setPitchHz(new float[pitchFrames]);
+        reader.read(Series.PITCH, 0, Double.MAX_VALUE, new ArrayFiller(features.getPitchTimes(), features.getPitchHz()));
+        int energyFrames = reader.frameCount(Series.ENERGY);
+        features.setEnergyTimes(new float[energyFrames]);
+        features.setEnergyRms(new float[energyFrames]);
+        reader.read(Series.ENERGY, 0, Double.MAX_VALUE, new ArrayFiller(features.getEnergyTimes(), features.getEnergyRms()));
+        return features;
+    }
+
+    public static int version(byte[] data) throws IOException {
+        if (data.length < HEADER_BYTES || ByteBuffer.wrap(data).getInt() != MAGIC) {
+            throw new IOException("Not an encoded feature vector");
+        }
+        return data[4] & 0xff;
+    }
+
+    private static void writeSeries(Writer writer, Series series, float[] times, float[] values, double step) throws IOException {
+        writer.beginSeries(series);
+        for (int i = 0; i < times.length; i++) {
+            long frame = Math.round(times[i] / step);
+            if (step <= 0 || Math.abs(frame * step - times[i]) > step / 4) {
+                throw new IllegalArgumentException(series + " time " + times[i] + " is off the " + step + " s frame grid");
+            }
+            writer.append(frame, values[i]);
+        }
+    }
+
+    /**
+     * Streams a format 2 encoding out: scalars first, then the series one after the other with
+     * frames in increasing order, and the block directory on {@link #close()}.
+     */
+    public static final class Writer implements Closeable {
+
+        private final DataOutputStream out;
+        private final Map<Series, List<Block>> directory = new EnumMap<>(Series.class);
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final long[] frames = new long[BLOCK_FRAMES];
+        private final short[] values = new short[BLOCK_FRAMES];
+        private List<Block> blocks;
+        private int count;
+        private long lastFrame = -1;
+
+        /**
+         * Writes the header, scalars and segments of {@code scalars}; its series are ignored
+         */
+        public Writer(OutputStream out, FeatureVector scalars) throws IOException {
+            this.out = new DataOutputStream(out);
+            this.out.writeInt(MAGIC);
+            this.out.writeByte(FORMAT_VERSION);
+            this.out.writeDouble(scalars.getDurationSeconds());
+            this.out.writeInt(scalars.getSampleRate());
+            this.out.writeDouble(scalars.getFrameStepSeconds());
+            this.out.writeInt(scalars.getWordCount());
+            this.out.writeInt(scalars.getFillerCount());
+            this.out.writeInt(scalars.getSegmentWpm().length);
+            for (int i = 0; i < scalars.getSegmentWpm().length; i++) {
+                this.out.writeDouble(scalars.getSegmentStarts()[i]);
+                this.out.writeDouble(scalars.getSegmentEnds()[i]);
+                this.out.writeDouble(scalars.getSegmentWpm()[i]);
+            }
+        }
+
+        public void beginSeries(Series series) throws IOException {
+            flushBlock();
+            if (directory.containsKey(series)) {
+                throw new IllegalStateException(series + " written twice");
+            }
+            blocks = new ArrayList<>();
+            directory.put(series, blocks);
+            lastFrame = -1;
+        }
+
+        public void append(long frame, float value) throws IOException {
+            if (blocks == null) {
+                throw new IllegalStateException("No series begun");
+            }
+            if (frame <= lastFrame) {
+                throw new IllegalArgumentException("Frame " + frame + " after " + lastFrame);
+            }
+            frames[count] = frame;
+            values[count] = toHalf(value);
+            lastFrame = frame;
+            if (++count == BLOCK_FRAMES) {
+                flushBlock();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flushBlock();
+                int directoryOffset = out.size();
+                out.writeByte(directory.size());
+                for (Map.Entry<Series, List<Block>> entry : directory.entrySet()) {
+                    out.writeByte(entry.getKey().ordinal());
+                    out.writeInt(entry.getValue().size());
+                    for (Block block : entry.getValue()) {
+                        out.writeLong(block.firstFrame);
+                        out.writeLong(block.lastFrame);
+                        out.writeInt(block.count);
+                        out.writeInt(block.offset);
+                        out.writeInt(block.length);
+                    }
+                }
+                out.writeInt(directoryOffset);
+                out.flush();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (count == 0) {
+                return;
+            }
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(count * 3);
+            long previous = frames[0];
+            for (int i = 0; i < count; i++) {
+                writeVarLong(raw, frames[i] - previous);
+                previous = frames[i];
+            }
+            for (int i = 0; i < count; i++) {
+                raw.write(values[i] >>> 8);
+            }
+            for (int i = 0; i < count; i++) {
+                raw.write(values[i]);
+            }
+
+            deflater.reset();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.size() / 2);
+            try (DeflaterOutputStream deflating = new DeflaterOutputStream(compressed, deflater)) {
+                raw.writeTo(deflating);
+            }
+            blocks.add(new Block(frames[0], frames[count - 1], count, out.size(), compressed.size()));
+            compressed.writeTo(out);
+            count = 0;
+        }
+    }
+
+    /**
+     * Random access to a format 2 encoding held in memory. Only the directory is parsed up
+     * front; series blocks are inflated as a read reaches them.
+     */
+    public static final class Reader {
+
+        private final ByteBuffer data;
+        private final double frameStepSeconds;
+        private final Map<Series, List<Block>> directory = new EnumMap<>(Series.class);
+
+        public Reader(byte[] data) throws IOException {
+            if (version(data) != 2) {
+                throw new IOException("Unsupported feature vector format " + version(data));
+            }
+            this.data = ByteBuffer.wrap(data).asReadOnlyBuffer();
+            try {
+                frameStepSeconds = this.data.getDouble(HEADER_BYTES + 12);
+                ByteBuffer in = this.data.duplicate().position(this.data.getInt(data.length - 4));
+                int seriesCount = in.get();
+                for (int s = 0; s < seriesCount; s++) {
+                    Series series = Series.values()[in.get()];
+                    List<Block> blocks = new ArrayList<>();
+                    int blockCount = in.getInt();
+                    for (int b = 0; b < blockCount; b++) {
+                        blocks.add(new Block(in.getLong(), in.getLong(), in.getInt(), in.getInt(), in.getInt()));
+                    }
+                    directory.put(series, blocks);
+                }
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IOException("Truncated feature vector", e);
+            }
+        }
+
+        public double frameStepSeconds() {
+            return frameStepSeconds;
+        }
+
+        public int frameCount(Series series) {
+            return directory.getOrDefault(series, List.of()).stream().mapToInt(Block::count).sum();
+        }
+
+        /**
+         * Scalars and segments, with empty series
+         */
+        public FeatureVector scalars() throws IOException {
+            try {
+                ByteBuffer in = data.duplicate().position(HEADER_BYTES);
+                FeatureVector features = new FeatureVector();
+                features.setDurationSeconds(in.getDouble());
+                features.setSampleRate(in.getInt());
+                features.setFrameStepSeconds(in.getDouble());
+                features.setWordCount(in.getInt());
+                features.setFillerCount(in.getInt());
+                int segments = in.getInt();
+                features.setSegmentStarts(new double[segments]);
+                features.setSegmentEnds(new double[segments]);
+                features.setSegmentWpm(new double[segments]);
+                for (int i = 0; i < segments; i++) {
+                    features.getSegmentStarts()[i] = in.getDouble();
+                    features.getSegmentEnds()[i] = in.getDouble();
+                    features.getSegmentWpm()[i] = in.getDouble();
+                }
+                return features;
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Truncated feature vector", e);
+            }
+        }
+
+        /**
+         * Feed the samples of {@code series} with {@code from <= time <= to} to {@code consumer} in
+         * time order, inflating only the blocks that overlap the range
+         */
+        public void read(Series series, double from, double to, SampleConsumer consumer) throws IOException {
+            long firstFrame = (long) Math.ceil(from / frameStepSeconds - 1e-6);
+            long lastFrame = (long) Math.floor(to / frameStepSeconds + 1e-6);      // saturates for open ranges
+            Inflater inflater = new Inflater();
+            try {
+                for (Block block : directory.getOrDefault(series, List.of())) {
+                    if (block.lastFrame < firstFrame) {
+                        continue;
+                    }
+                    if (block.firstFrame > lastFrame) {
+                        break;
+                    }
+                    readBlock(block, inflater, firstFrame, lastFrame, consumer);
+                }
+            } finally {
+                inflater.end();
+            }
+        }
+
+        private void readBlock(Block block, Inflater inflater, long firstFrame, long lastFrame,
+                               SampleConsumer consumer) throws IOException {
+            byte[] raw = new byte[block.count * 12];     // worst case: 10-byte varints + 2 value bytes
+            int length;
+            try {
+                inflater.reset();
+                ByteBuffer compressed = data.duplicate().position(block.offset).limit(block.offset + block.length);
+                inflater.setInput(compressed);
+                length = inflater.inflate(raw);
+            } catch (DataFormatException | IllegalArgumentException e) {
+                throw new IOException("Corrupt feature vector block", e);
+            }
+
+            ByteBuffer in = ByteBuffer.wrap(raw, 0, length);
+            long[] frames = new long[block.count];
+            long frame = block.firstFrame;
+            for (int i = 0; i < block.count; i++) {
+                frame += readVarLong(in);
+                frames[i] = frame;
+            }
+            int high = in.position();
+            int low = high + block.count;
+            if (low + block.count > length) {
+                throw new IOException("Corrupt feature vector block");
+            }
+            for (int i = 0; i < block.count; i++) {
+                if (frames[i] < firstFrame) continue;
+                if (frames[i] > lastFrame) break;
+                short half = (short) ((raw[high + i] & 0xff) << 8 | raw[low + i] & 0xff);
+                consumer.accept(frames[i] * frameStepSeconds, fromHalf(half));
+            }
+        }
+    }
+
+    private record Block(long firstFrame, long lastFrame, int count, int offset, int length) {
+    }
+
+    private static final class ArrayFiller implements SampleConsumer {
+
+        private final float[] times;
+        private final float[] values;
+        private int next;
+
+        ArrayFiller(float[] times, float[] values) {
+            this.times = times;
+            this.values = values;
+        }
+
+        @Override
+        public void accept(double time, float value) {
+            times[next] = (float) time;
+            values[next++] = value;
+        }
+    }
+
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!in.hasRemaining()) {
+                throw new IOException("Corrupt feature vector block");
+            }
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt feature vector block");
+    }
+
+    // IEEE 754 binary16, round to nearest; Float.floatToFloat16 only arrives with Java 20
+    static short toHalf(float value) {
+        int bits = Float.floatToIntBits(value);
+        int sign = bits >>> 16 & 0x8000;
+        int magnitude = bits & 0x7fffffff;
+        if (magnitude >= 0x7f800000) {                   // Inf, NaN
+            return (short) (sign | 0x7c00 | (magnitude > 0x7f800000 ? 0x200 : 0));
+        }
+        int rounded = magnitude + 0x1000;
+        if (rounded >= 0x47800000) {                     // beyond the largest half
+            return (short) (sign | 0x7c00);
+        }
+        if (rounded >= 0x38800000) {                     // normal
+            return (short) (sign | rounded - 0x38000000 >>> 13);
+        }
+        if (magnitude < 0x33000000) {                    // under half the smallest subnormal
+            return (short) sign;
+        }
+        int exponent = magnitude >>> 23;
+        return (short) (sign | ((magnitude & 0x7fffff | 0x800000) + (0x800000 >>> exponent - 102)) >>> 126 - exponent);
+    }
+
+    static float fromHalf(short half) {
+        int sign = (half & 0x8000) << 16;
+        int exponent = half >>> 10 & 0x1f;
+        int mantissa = half & 0x3ff;
+        if (exponent == 0) {
+            float subnormal = mantissa * 0x1p-24f;
+            return sign != 0 ? -subnormal : subnormal;
+        }
+        if (exponent == 0x1f) {
+            return Float.intBitsToFloat(sign | 0x7f800000 | mantissa << 13);
+        }
+        return Float.intBitsToFloat(sign | exponent + 112 << 23 | mantissa << 13);
+    }
+
+    private static FeatureVector decodeV1(byte[] data) throws IOException {
+        InputStream bytes = new ByteArrayInputStream(data, HEADER_BYTES, data.length - HEADER_BYTES);
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(bytes))) {
+            FeatureVector features = new FeatureVector();
+            features.setDurationSeconds(in.readDouble());
+            features.setSampleRate(in.readInt());
+            features.setWordCount(in.readInt());
+            features.setFillerCount(in.readInt());
+            features.setPitchTimes(readFloats(in));
+            features.setPitchHz(readFloats(in));
+            features.setEnergyTimes(readFloats(in));
+            features.setEnergyRms(readFloats(in));
+            features.setSegmentStarts(readDoubles(in));
+            features.setSegmentEnds(readDoubles(in));
+            features.setSegmentWpm(readDoubles(in));
+            return features;
+        }
+    }
+
+    private static float[] readFloats(DataInputStream in) throws IOException {
+        float[] values = new float[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readFloat();
+        }
+        return values;
+    }
+
+    private static double[] readDoubles(DataInputStream in) throws IOException {
+        double[] values = new double[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+}
@@ -1,31 +1,209 @@
 package com.tranquility.SpeakSmart.util;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 
-import java.util.regex.Matcher;
+import java.util.Optional;
 import java.util.regex.Pattern;
 
+@Slf4j
 public class LlmUtils {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
-    public static JsonNode extractJsonFromLlm(String data) {
-        // Regex to find JSON starting with '{' until the last '}'
-        Pattern pattern = Pattern.compile("\\{.*}", Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(data);
+    private static final String THINK_OPEN = "<think>";
+    private static final String THINK_CLOSE = "</think>";
+
+    // a completion cut off deeper than this is not worth repairing
+    private static final int MAX_REPAIR_DEPTH = 16;
 
-        if (!matcher.find()) {
-            System.out.println("Data not found in LLM output");
+    private static final Pattern COMPLETE_NUMBER = Pattern.compile("-?(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    public static JsonNode extractJsonFromLlm(String data) {
+        String json = extractJsonObject(data);
+        if (json == null) {
+            log.warn("Data not found in LLM output");
             return mapper.createObjectNode(); // return empty JSON {}
         }
 
         try {
-            String jsonStr = matcher.group();
-            return mapper.readTree(jsonStr);
+            return mapper.readTree(json);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.warn("Could not parse JSON from LLM output: {}", e.getMessage());
             return mapper.createObjectNode(); // return empty JSON {} on error
         }
     }
+
+    /**
+     * Parse the first JSON object in the completion into {@code type}. Empty when there is no
+     * object or it does not bind to the type.
+     */
+    public static <T> Optional<T> parseJsonFromLlm(String data, Class<T> type) {
+        String json = extractJsonObject(data);
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(mapper.readValue(json, type));
+        } catch (Exception e) {
+            log.warn("LLM output does not match {}: {}", type.getSimpleName(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Single forward scan for the first top-level JSON object, skipping {@code <think>} blocks
+     * and tracking strings so braces inside them are not counted. A completion truncated
+     * mid-object is repaired by dropping a member or element left without a complete value and
+     * closing the open string and brackets; returns null when there is no object at all.
+     */
+    public static String extractJsonObject(String data) {
+        if (data == null) {
+            return null;
+        }
+        int n = data.length();
+        int start = -1;
+        for (int i = 0; i < n && start < 0; i++) {
+            char c = data.charAt(i);
+            if (c == '<' && data.startsWith(THINK_OPEN, i)) {
+                int close = data.indexOf(THINK_CLOSE, i + THINK_OPEN.length());
+                if (close < 0) {
+                    return null;
+                }
+                i = close + THINK_CLOSE.length() - 1;
+            } else if (c == '{') {
+                start = i;
+            }
+        }
+        if (start < 0) {
+            return null;
+        }
+
+        char[] closers = new char[MAX_REPAIR_DEPTH];
+        int depth = 0;
+        boolean inString = false;
+        boolean escape = false;
+        int unicodeDigitsLeft = 0;
+        // start of the current object member (its key) or array element, dropped whole when truncation
+        // leaves it without a complete value
+        int memberStart = -1;
+        boolean valueStarted = false;
+        boolean afterColon = false;
+        int literalStart = -1;
+        for (int i = start; i < n; i++) {
+            char c = data.charAt(i);
+            if (inString) {
+                if (unicodeDigitsLeft > 0) {
+                    unicodeDigitsLeft--;
+                } else if (escape) {
+                    escape = false;
+                    if (c == 'u') {
+                        unicodeDigitsLeft = 4;
+                    }
+                } else if (c == '\\') {
+                    escape = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            boolean inObject = depth > 0 && depth <= MAX_REPAIR_DEPTH && closers[depth - 1] == '}';
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    literalStart = -1;
+                    if (inObject && !afterColon) {
+                        memberStart = i;
+                        valueStarted = false;
+                    } else {
+                        memberStart = memberStart >= 0 ? memberStart : i;
+                        valueStarted = true;
+                    }
+                }
+                case ':' -> afterColon = true;
+                case ',' -> {
+                    afterColon = false;
+                    memberStart = -1;
+                    valueStarted = false;
+                    literalStart = -1;
+                }
+                case '{', '[' -> {
+                    if (depth < MAX_REPAIR_DEPTH) {
+                        closers[depth] = c == '{' ? '}' : ']';
+                    }
+                    depth++;
+                    memberStart = -1;
+                    valueStarted = false;
+                    afterColon = false;
+                    literalStart = -1;
+                }
+                case '}', ']' -> {
+                    if (--depth == 0) {
+                        return data.substring(start, i + 1);
+                    }
+                    // the enclosing member's value is now complete
+                    memberStart = -1;
+                    valueStarted = true;
+                    afterColon = true;
+                    literalStart = -1;
+                }
+                default -> {
+                    if (Character.isWhitespace(c)) {
+                        literalStart = -1;
+                    } else if (literalStart < 0) {
+                        literalStart = i;
+                        memberStart = memberStart >= 0 ? memberStart : i;
+                        valueStarted = true;
+                    }
+                }
+            }
+        }
+
+        if (depth > MAX_REPAIR_DEPTH) {
+            return null;
+        }
+        log.debug("Repairing truncated LLM JSON at depth {}", depth);
+        // a key with no value yet, a cut-off unicode escape or a partial literal such as tru or 1.
+        boolean cutOff = (memberStart >= 0 && !valueStarted)
+                || (inString && unicodeDigitsLeft > 0)
+                || (literalStart >= 0 && !isCompleteLiteral(data.substring(literalStart)));
+        StringBuilder repaired = new StringBuilder(data.length() - start + depth + 1).append(data, start, n);
+        if (cutOff && memberStart >= 0) {
+            repaired.setLength(memberStart - start);
+        } else {
+            if (escape) {
+                repaired.setLength(repaired.length() - 1);
+            }
+            if (inString) {
+                repaired.append('"');
+            }
+        }
+        trimDanglingSeparator(repaired);
+        for (int d = depth - 1; d >= 0; d--) {
+            repaired.append(closers[d]);
+        }
+        return repaired.toString();
+    }
+
+    private static boolean isCompleteLiteral(String literal) {
+        return literal.equals("true") || literal.equals("false") || literal.equals("null")
+                || COMPLETE_NUMBER.matcher(literal).matches();
+    }
+
+    /**
+     * Drop trailing whitespace and a comma left behind by truncation
+     */
+    private static void trimDanglingSeparator(StringBuilder json) {
+        int end = json.length();
+        while (end > 0 && Character.isWhitespace(json.charAt(end - 1))) {
+            end--;
+        }
+        if (end > 0 && json.charAt(end - 1) == ',') {
+            end--;
+        }
+        json.setLength(end);
+    }
 }
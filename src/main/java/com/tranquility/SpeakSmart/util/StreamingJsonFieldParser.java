@@ -0,0 +1,211 @@
+package com.tranquility.SpeakSmart.util;
+
+import java.io.IOException;
+
+/**
+ * Incremental parser for streamed LLM output. Text is fed chunk by chunk as tokens
+ * arrive, and the decoded content of every top-level string field is forwarded to
+ * the listener as soon as it is available, without waiting for the closing brace.
+ * <p>
+ * Anything before the first top-level '{' is ignored, including {@code <think>}
+ * blocks emitted by reasoning models. Non-string values are skipped.
+ */
+public class StreamingJsonFieldParser {
+
+    @FunctionalInterface
+    public interface FieldListener {
+        void onFieldText(String field, String text) throws IOException;
+    }
+
+    private enum State {
+        SEEK_OBJECT,
+        EXPECT_KEY,
+        IN_KEY,
+        EXPECT_COLON,
+        EXPECT_VALUE,
+        IN_STRING_VALUE,
+        IN_OTHER_VALUE,
+        DONE
+    }
+
+    private static final String THINK_OPEN = "<think>";
+    private static final String THINK_CLOSE = "</think>";
+
+    private final FieldListener listener;
+
+    private State state = State.SEEK_OBJECT;
+    private final StringBuilder tagWindow = new StringBuilder();
+    private boolean inThink;
+
+    private final StringBuilder key = new StringBuilder();
+    private final StringBuilder pending = new StringBuilder();
+    private String currentField;
+
+    // escape handling, shared by keys and string values
+    private boolean escape;
+    private int unicodeDigitsLeft;
+    private int unicodeValue;
+
+    // nested value skipping
+    private int nestedDepth;
+    private boolean nestedInString;
+    private boolean nestedEscape;
+
+    public StreamingJsonFieldParser(FieldListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Feed the next chunk of LLM output; decoded field text is flushed once per chunk
+     */
+    public void feed(String chunk) throws IOException {
+        for (int i = 0; i < chunk.length(); i++) {
+            accept(chunk.charAt(i));
+        }
+        flush();
+    }
+
+    public boolean isComplete() {
+        return state == State.DONE;
+    }
+
+    private void accept(char c) throws IOException {
+        switch (state) {
+            case SEEK_OBJECT -> seekObject(c);
+            case EXPECT_KEY -> {
+                if (c == '"') {
+                    key.setLength(0);
+                    state = State.IN_KEY;
+                } else if (c == '}') {
+                    state = State.DONE;
+                }
+            }
+            case IN_KEY -> {
+                int decoded = decode(c);
+                if (decoded == -2) {
+                    state = State.EXPECT_COLON;
+                } else if (decoded >= 0) {
+                    key.append((char) decoded);
+                }
+            }
+            case EXPECT_COLON -> {
+                if (c == ':') {
+                    state = State.EXPECT_VALUE;
+                }
+            }
+            case EXPECT_VALUE -> {
+                if (c == '"') {
+                    currentField = key.toString();
+                    state = State.IN_STRING_VALUE;
+                } else if (!Character.isWhitespace(c)) {
+                    nestedDepth = 0;
+                    nestedInString = false;
+                    nestedEscape = false;
+                    state = State.IN_OTHER_VALUE;
+                    skipValue(c);
+                }
+            }
+            case IN_STRING_VALUE -> {
+                int decoded = decode(c);
+                if (decoded == -2) {
+                    flush();
+                    currentField = null;
+                    state = State.EXPECT_KEY;
+                } else if (decoded >= 0) {
+                    pending.append((char) decoded);
+                }
+            }
+            case IN_OTHER_VALUE -> skipValue(c);
+            case DONE -> {
+            }
+        }
+    }
+
+    private void seekObject(char c) {
+        tagWindow.append(c);
+        if (tagWindow.length() > THINK_CLOSE.length()) {
+            tagWindow.deleteCharAt(0);
+        }
+        String window = tagWindow.toString();
+        if (inThink) {
+            if (window.endsWith(THINK_CLOSE)) {
+                inThink = false;
+            }
+        } else if (window.endsWith(THINK_OPEN)) {
+            inThink = true;
+        } else if (c == '{') {
+            state = State.EXPECT_KEY;
+        }
+    }
+
+    /**
+     * Decode one character of a JSON string body. Returns the decoded char, -1 when
+     * the character is part of an unfinished escape and -2 on the closing quote.
+     */
+    private int decode(char c) {
+        if (unicodeDigitsLeft > 0) {
+            unicodeValue = (unicodeValue << 4) | Character.digit(c, 16);
+            return --unicodeDigitsLeft == 0 ? unicodeValue : -1;
+        }
+        if (escape) {
+            escape = false;
+            return switch (c) {
+                case 'n' -> '\n';
+                case 't' -> '\t';
+                case 'r' -> '\r';
+                case 'b' -> '\b';
+                case 'f' -> '\f';
+                case 'u' -> {
+                    unicodeDigitsLeft = 4;
+                    unicodeValue = 0;
+                    yield -1;
+                }
+                default -> c;
+            };
+        }
+        if (c == '\\') {
+            escape = true;
+            return -1;
+        }
+        return c == '"' ? -2 : c;
+    }
+
+    private void skipValue(char c) {
+        if (nestedInString) {
+            if (nestedEscape) {
+                nestedEscape = false;
+            } else if (c == '\\') {
+                nestedEscape = true;
+            } else if (c == '"') {
+                nestedInString = false;
+            }
+            return;
+        }
+        switch (c) {
+            case '"' -> nestedInString = true;
+            case '{', '[' -> nestedDepth++;
+            case '}', ']' -> {
+                if (nestedDepth == 0) {
+                    // closing brace of the top-level object right after a scalar value
+                    state = State.DONE;
+                } else {
+                    nestedDepth--;
+                }
+            }
+            case ',' -> {
+                if (nestedDepth == 0) {
+                    state = State.EXPECT_KEY;
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        if (currentField != null && pending.length() > 0) {
+            listener.onFieldText(currentField, pending.toString());
+            pending.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.tranquility.SpeakSmart.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Deterministic text statistics for transcripts: word frequencies without stop words
+ * and the longest sentences. These used to be asked from the LLM; computing them
+ * locally gives exact counts and keeps the vocab prompt small.
+ */
+public class TextAnalytics {
+
+    public record WordCount(String word, int count) {
+    }
+
+    private static final int MIN_WORD_LENGTH = 3;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "about", "above", "after", "again", "against", "all", "also", "am", "an", "and", "any", "are",
+            "aren't", "as", "at", "be", "because", "been", "before", "being", "below", "between", "both", "but",
+            "by", "can", "can't", "cannot", "could", "couldn't", "did", "didn't", "do", "does", "doesn't", "doing",
+            "don't", "down", "during", "each", "even", "every", "few", "for", "from", "further", "get", "gets",
+            "got", "had", "hadn't", "has", "hasn't", "have", "haven't", "having", "he", "he'd", "he'll", "he's",
+            "her", "here", "here's", "hers", "herself", "him", "himself", "his", "how", "how's", "i", "i'd",
+            "i'll", "i'm", "i've", "if", "in", "into", "is", "isn't", "it", "it's", "its", "itself", "just",
+            "let's", "like", "more", "most", "much", "must", "mustn't", "my", "myself", "no", "nor", "not", "now",
+            "of", "off", "on", "once", "one", "only", "or", "other", "ought", "our", "ours", "ourselves", "out",
+            "over", "own", "really", "same", "say", "said", "shan't", "she", "she'd", "she'll", "she's", "should",
+            "shouldn't", "so", "some", "such", "than", "that", "that's", "the", "their", "theirs", "them",
+            "themselves", "then", "there", "there's", "these", "they", "they'd", "they'll", "they're", "they've",
+            "thing", "things", "this", "those", "through", "to", "too", "under", "until", "up", "us", "very",
+            "was", "wasn't", "we", "we'd", "we'll", "we're", "we've", "were", "weren't", "what", "what's", "when",
+            "when's", "where", "where's", "which", "while", "who", "who's", "whom", "why", "why's", "will",
+            "with", "won't", "would", "wouldn't", "yeah", "yes", "you", "you'd", "you'll", "you're", "you've",
+            "your", "yours", "yourself", "yourselves", "um", "uh", "okay", "gonna", "wanna"
+    );
+
+    /**
+     * Top {@code limit} meaningful words by frequency, most frequent first, ties broken
+     * alphabetically. Only words that occur more than once are reported.
+     */
+    public static List<WordCount> topRepeatedWords(String text, int limit) {
+        WordCountMap counts = new WordCountMap(64);
+        if (text != null) {
+            forEachWord(text, word -> {
+                if (word.length() >= MIN_WORD_LENGTH && !STOP_WORDS.contains(word)) {
+                    counts.increment(word);
+                }
+            });
+        }
+
+        List<WordCount> repeated = new ArrayList<>();
+        counts.forEach((word, count) -> {
+            if (count > 1) {
+                repeated.add(new WordCount(word, count));
+            }
+        });
+        repeated.sort(Comparator.comparingInt(WordCount::count).reversed().thenComparing(WordCount::word));
+        return repeated.size() > limit ? new ArrayList<>(repeated.subList(0, limit)) : repeated;
+    }
+
+    /**
+     * Sentences of at least {@code minWords} words, longest first, at most {@code limit} of them
+     */
+    public static List<String> longestSentences(String text, int limit, int minWords) {
+        List<String> sentences = splitSentences(text);
+        List<int[]> ranked = new ArrayList<>();   // [index, wordCount]
+        for (int i = 0; i < sentences.size(); i++) {
+            int words = countWords(sentences.get(i));
+            if (words >= minWords) {
+                ranked.add(new int[]{i, words});
+            }
+        }
+        ranked.sort((a, b) -> a[1] != b[1] ? Integer.compare(b[1], a[1]) : Integer.compare(a[0], b[0]));
+
+        List<String> longest = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, ranked.size()); i++) {
+            longest.add(sentences.get(ranked.get(i)[0]));
+        }
+        return longest;
+    }
+
+    /**
+     * Split on sentence-ending punctuation followed by whitespace or end of text
+     */
+    public static List<String> splitSentences(String text) {
+        List<String> sentences = new ArrayList<>();
+        if (text == null) {
+            return sentences;
+        }
+        int start = 0;
+        int n = text.length();
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (c == '.' || c == '!' || c == '?') {
+                int end = i + 1;
+                while (end < n && (text.charAt(end) == '.' || text.charAt(end) == '!' || text.charAt(end) == '?')) {
+                    end++;
+                }
+                if (end == n || Character.isWhitespace(text.charAt(end))) {
+                    addSentence(sentences, text, start, end);
+                    start = end;
+                }
+                i = end - 1;
+            }
+        }
+        addSentence(sentences, text, start, n);
+        return sentences;
+    }
+
+    public static int countWords(String text) {
+        int[] count = {0};
+        forEachWord(text, word -> count[0]++);
+        return count[0];
+    }
+
+    private static void addSentence(List<String> sentences, String text, int start, int end) {
+        String sentence = text.substring(start, end).trim();
+        if (!sentence.isEmpty()) {
+            sentences.add(sentence);
+        }
+    }
+
+    private interface WordConsumer {
+        void accept(String word);
+    }
+
+    /**
+     * Lower-cased words made of letters, digits and inner apostrophes
+     */
+    private static void forEachWord(String text, WordConsumer consumer) {
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < n && (Character.isLetterOrDigit(text.charAt(i))
+                    || (isApostrophe(text.charAt(i)) && i + 1 < n && Character.isLetter(text.charAt(i + 1))))) {
+                i++;
+            }
+            if (i > start) {
+                String word = text.substring(start, i).toLowerCase(Locale.ROOT).replace('’', '\'');
+                if (!isNumber(word)) {
+                    consumer.accept(word);
+                }
+            }
+        }
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '’';
+    }
+
+    private static boolean isNumber(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (!Character.isDigit(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Open-addressing String to int map, avoids boxing a counter per word
+     */
+    private static final class WordCountMap {
+        private String[] keys;
+        private int[] values;
+        private int size;
+
+        WordCountMap(int capacity) {
+            int tableSize = Integer.highestOneBit(Math.max(4, capacity) * 2 - 1);
+            keys = new String[tableSize];
+            values = new int[tableSize];
+        }
+
+        void increment(String key) {
+            int mask = keys.length - 1;
+            int slot = mix(key.hashCode()) & mask;
+            while (keys[slot] != null) {
+                if (keys[slot].equals(key)) {
+                    values[slot]++;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = 1;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+        }
+
+        void forEach(Visitor visitor) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    visitor.visit(keys[i], values[i]);
+                }
+            }
+        }
+
+        private void resize() {
+            String[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new String[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int slot = mix(oldKeys[i].hashCode()) & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        interface Visitor {
+            void visit(String key, int value);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.tranquility.SpeakSmart.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.tranquility.SpeakSmart.model.TranscriptionResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming parser for Whisper verbose_json. Reads tokens straight off the response body
+ * into a {@link TranscriptionResponse}, without building a tree or boxing every number.
+ * Fields it does not use (tokens, avg_logprob, x_groq, ...) are skipped. A segment or word
+ * without an end ends where the next one starts, or else at the end of the audio.
+ */
+public class WhisperResponseParser {
+
+    private static final JsonFactory factory = new JsonFactory();
+
+    public static TranscriptionResponse parse(InputStream body) throws IOException {
+        try (JsonParser parser = factory.createParser(body)) {
+            return parse(parser);
+        }
+    }
+
+    public static TranscriptionResponse parse(byte[] body) throws IOException {
+        try (JsonParser parser = factory.createParser(body)) {
+            return parse(parser);
+        }
+    }
+
+    private static TranscriptionResponse parse(JsonParser parser) throws IOException {
+        TranscriptionResponse response = new TranscriptionResponse();
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Transcription response is not a JSON object");
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "text" -> response.setText(textOrNull(parser, value));
+                case "language" -> response.setLanguage(textOrNull(parser, value));
+                case "duration" -> response.setDuration(value.isNumeric() ? parser.getDoubleValue() : 0);
+                case "segments" -> readSegments(parser, value, response);
+                case "words" -> readWords(parser, value, response);
+                default -> parser.skipChildren();
+            }
+        }
+        fillMissingEnds(response.getSegmentStarts(), response.getSegmentEnds(), response.getSegmentCount(), response.getDuration());
+        fillMissingEnds(response.getWordStarts(), response.getWordEnds(), response.getWordCount(), response.getDuration());
+        return response;
+    }
+
+    private static void readSegments(JsonParser parser, JsonToken value, TranscriptionResponse response) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            double start = 0;
+            double end = Double.NaN;
+            String text = "";
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "start" -> start = token.isNumeric() ? parser.getDoubleValue() : start;
+                    case "end" -> end = token.isNumeric() ? parser.getDoubleValue() : end;
+                    case "text" -> text = token == JsonToken.VALUE_STRING ? parser.getText() : text;
+                    default -> parser.skipChildren();
+                }
+            }
+            response.addSegment(start, end, text);
+        }
+    }
+
+    private static void readWords(JsonParser parser, JsonToken value, TranscriptionResponse response) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            double start = 0;
+            double end = Double.NaN;
+            String word = "";
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "start" -> start = token.isNumeric() ? parser.getDoubleValue() : start;
+                    case "end" -> end = token.isNumeric() ? parser.getDoubleValue() : end;
+                    case "word" -> word = token == JsonToken.VALUE_STRING ? parser.getText() : word;
+                    default -> parser.skipChildren();
+                }
+            }
+            response.addWord(word, start, end);
+        }
+    }
+
+    // Left at the start, so zero length, when neither the next start nor the duration lies after it
+    private static void fillMissingEnds(double[] starts, double[] ends, int count, double duration) {
+        for (int i = 0; i < count; i++) {
+            if (!Double.isNaN(ends[i])) {
+                continue;
+            }
+            if (i + 1 < count && starts[i + 1] > starts[i]) {
+                ends[i] = starts[i + 1];
+            } else {
+                ends[i] = duration > starts[i] ? duration : starts[i];
+            }
+        }
+    }
+
+    private static String textOrNull(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+    }
+}
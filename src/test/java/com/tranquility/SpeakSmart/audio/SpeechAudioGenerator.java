@@ -0,0 +1,288 @@
+package com.tranquility.SpeakSmart.audio;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic speech-like WAV audio with ground truth, for accuracy and performance tests of
+ * the analysis engine. No user recordings needed.
+ * <p>
+ * The signal is a harmonic voiced source following an F0 contour, shaped by syllable-rate
+ * envelopes, silenced for the given pauses and laid over a Gaussian noise floor. The same
+ * {@link Spec} always yields the same bytes, and each recording carries the F0, RMS and pauses
+ * it was built from, sampled every {@link #FRAME_SECONDS}.
+ */
+public final class SpeechAudioGenerator {
+
+    public static final double FRAME_SECONDS = 0.01;
+
+    private static final int HARMONICS = 5;
+    private static final double VOICING_THRESHOLD = 0.2;     // envelope level from which a frame counts as voiced
+
+    /**
+     * Control point of the F0 contour, interpolated linearly in between
+     */
+    public record PitchPoint(double time, double hz) {
+    }
+
+    public record Pause(double start, double duration) {
+        public double end() {
+            return start + duration;
+        }
+    }
+
+    /**
+     * What to generate. Without an explicit {@code f0Contour}, F0 declines linearly from
+     * {@code f0Hz} by {@code f0DeclinationHz} over the recording and swings by
+     * {@code f0ModulationDepth} (a fraction) at {@code f0ModulationHz}.
+     */
+    @Data
+    public static class Spec {
+        private String name = "speech";
+        private double durationSeconds = 30;
+        private int sampleRate = 44_100;
+        private long seed = 42;
+
+        private double f0Hz = 140;
+        private double f0DeclinationHz = 20;
+        private double f0ModulationDepth = 0.15;
+        private double f0ModulationHz = 0.3;
+        private List<PitchPoint> f0Contour = new ArrayList<>();
+
+        private double syllableRate = 4.0;          // syllables per second
+        private double amplitude = 0.5;             // peak of the voiced signal, full scale is 1
+        private double noiseFloorDbfs = -50;        // RMS of the background noise
+        private List<Pause> pauses = new ArrayList<>();
+    }
+
+    /**
+     * Ground truth per frame ({@code f0} is 0 when unvoiced) plus summary statistics
+     */
+    public record GroundTruth(double frameSeconds, double[] f0, double[] rms, List<Pause> pauses,
+                              double meanF0, double f0StdDev, double voicedSeconds, double meanRms) {
+    }
+
+    public record Recording(Spec spec, byte[] wav, GroundTruth truth) {
+
+        public String fileName() {
+            return spec.getName() + ".wav";
+        }
+
+        /**
+         * Write the WAV and its ground truth as {@code <name>.json} next to it
+         */
+        public void write(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(fileName()), wav);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(directory.resolve(spec.getName() + ".json").toFile(),
+                            Map.of("spec", spec, "truth", truth));
+        }
+    }
+
+    private SpeechAudioGenerator() {
+    }
+
+    // ------------------- Presets -------------------
+
+    /**
+     * Varied speakers cycling through {@code durations}: F0 between 100 and 220 Hz, 3.5 to 5
+     * syllables per second and a pause of 0.3 to 1 s every 2 to 6 s
+     */
+    public static List<Recording> corpus(int count, List<Double> durations, int sampleRate, long seed) {
+        List<Recording> recordings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Random random = new Random(seed + i);
+            double duration = durations.get(i % durations.size());
+            Spec spec = new Spec();
+            spec.setName(String.format("speech-%03d-%ds", i, (int) duration));
+            spec.setDurationSeconds(duration);
+            spec.setSampleRate(sampleRate);
+            spec.setSeed(seed + i);
+            spec.setF0Hz(100 + 120 * random.nextDouble());
+            spec.setSyllableRate(3.5 + 1.5 * random.nextDouble());
+            spec.setPauses(randomPauses(duration, 2, 6, 0.3, 1.0, random));
+            recordings.add(generate(spec));
+        }
+        return recordings;
+    }
+
+    /**
+     * Pauses of {@code minLength..maxLength} seconds separated by {@code minGap..maxGap} seconds of speech
+     */
+    public static List<Pause> randomPauses(double duration, double minGap, double maxGap,
+                                           double minLength, double maxLength, Random random) {
+        List<Pause> pauses = new ArrayList<>();
+        double t = minGap + (maxGap - minGap) * random.nextDouble();
+        while (t < duration - maxLength - 1) {
+            double length = minLength + (maxLength - minLength) * random.nextDouble();
+            pauses.add(new Pause(round(t), round(length)));
+            t += length + minGap + (maxGap - minGap) * random.nextDouble();
+        }
+        return pauses;
+    }
+
+    // ------------------- Synthesis -------------------
+
+    public static Recording generate(Spec spec) {
+        int sampleRate = spec.getSampleRate();
+        int samples = (int) Math.round(spec.getDurationSeconds() * sampleRate);
+        int frameSamples = (int) Math.round(FRAME_SECONDS * sampleRate);
+        int frames = (samples + frameSamples - 1) / frameSamples;
+
+        Random noise = new Random(spec.getSeed());
+        double noiseRms = Math.pow(10, spec.getNoiseFloorDbfs() / 20);
+        double harmonicNorm = 0;
+        for (int k = 1; k <= HARMONICS; k++) {
+            harmonicNorm += 1.0 / k;
+        }
+
+        ByteBuffer pcm = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        double[] f0Truth = new double[frames];
+        double[] rmsTruth = new double[frames];
+        double[] frameEnergy = new double[frames];
+        int[] frameVoiced = new int[frames];
+        List<Pause> pauses = spec.getPauses().stream()
+                .sorted(Comparator.comparingDouble(Pause::start)).toList();
+        int nextPause = 0;
+        double phase = 0;
+
+        for (int n = 0; n < samples; n++) {
+            double t = n / (double) sampleRate;
+            double f0 = f0At(spec, t);
+            phase += 2 * Math.PI * f0 / sampleRate;
+            if (phase > 2 * Math.PI) {
+                phase -= 2 * Math.PI;
+            }
+
+            while (nextPause < pauses.size() && t >= pauses.get(nextPause).end()) {
+                nextPause++;
+            }
+            boolean paused = nextPause < pauses.size() && t >= pauses.get(nextPause).start();
+            double envelope = paused ? 0 : syllableEnvelope(spec.getSyllableRate(), t);
+            double voiced = 0;
+            if (envelope > 0) {
+                for (int k = 1; k <= HARMONICS; k++) {
+                    voiced += Math.sin(k * phase) / k;
+                }
+                voiced *= spec.getAmplitude() * envelope / harmonicNorm;
+            }
+            double value = Math.max(-1, Math.min(1, voiced + noiseRms * noise.nextGaussian()));
+            short sample = (short) Math.round(value * Short.MAX_VALUE);
+            pcm.putShort(sample);
+
+            int frame = n / frameSamples;
+            double quantized = sample / (double) Short.MAX_VALUE;
+            frameEnergy[frame] += quantized * quantized;
+            if (envelope >= VOICING_THRESHOLD) {
+                frameVoiced[frame]++;
+                f0Truth[frame] += f0;
+            }
+        }
+
+        double f0Sum = 0;
+        double f0SquareSum = 0;
+        double rmsSum = 0;
+        int voicedFrames = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            int length = Math.min(frameSamples, samples - frame * frameSamples);
+            rmsTruth[frame] = Math.sqrt(frameEnergy[frame] / length);
+            rmsSum += rmsTruth[frame];
+            // a frame is voiced when most of it is
+            if (frameVoiced[frame] * 2 > length) {
+                f0Truth[frame] /= frameVoiced[frame];
+                f0Sum += f0Truth[frame];
+                f0SquareSum += f0Truth[frame] * f0Truth[frame];
+                voicedFrames++;
+            } else {
+                f0Truth[frame] = 0;
+            }
+        }
+        double meanF0 = voicedFrames > 0 ? f0Sum / voicedFrames : 0;
+        double f0StdDev = voicedFrames > 1
+                ? Math.sqrt(Math.max(0, (f0SquareSum - voicedFrames * meanF0 * meanF0) / (voicedFrames - 1))) : 0;
+
+        GroundTruth truth = new GroundTruth(FRAME_SECONDS, f0Truth, rmsTruth, pauses,
+                meanF0, f0StdDev, voicedFrames * FRAME_SECONDS, frames > 0 ? rmsSum / frames : 0);
+        return new Recording(spec, wav(pcm.array(), sampleRate), truth);
+    }
+
+    static double f0At(Spec spec, double t) {
+        List<PitchPoint> contour = spec.getF0Contour();
+        if (!contour.isEmpty()) {
+            if (t <= contour.get(0).time()) {
+                return contour.get(0).hz();
+            }
+            for (int i = 1; i < contour.size(); i++) {
+                PitchPoint previous = contour.get(i - 1);
+                PitchPoint next = contour.get(i);
+                if (t <= next.time()) {
+                    double share = (t - previous.time()) / (next.time() - previous.time());
+                    return previous.hz() + share * (next.hz() - previous.hz());
+                }
+            }
+            return contour.get(contour.size() - 1).hz();
+        }
+        double declined = spec.getF0Hz() - spec.getF0DeclinationHz() * t / spec.getDurationSeconds();
+        return declined * (1 + spec.getF0ModulationDepth() * Math.sin(2 * Math.PI * spec.getF0ModulationHz() * t));
+    }
+
+    /**
+     * Raised-cosine syllable bursts: 75% of each syllable period is sounded, the rest is a gap
+     */
+    static double syllableEnvelope(double syllableRate, double t) {
+        double position = (t * syllableRate) % 1.0;
+        if (position >= 0.75) {
+            return 0;
+        }
+        return 0.5 - 0.5 * Math.cos(2 * Math.PI * position / 0.75);
+    }
+
+    private static byte[] wav(byte[] pcm, int sampleRate) {
+        ByteBuffer header = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
+        header.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(36 + pcm.length)
+                .put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        header.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16).putShort((short) 1).putShort((short) 1)
+                .putInt(sampleRate).putInt(sampleRate * 2).putShort((short) 2).putShort((short) 16);
+        header.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(pcm.length);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(44 + pcm.length);
+        out.writeBytes(header.array());
+        out.writeBytes(pcm);
+        return out.toByteArray();
+    }
+
+    private static double round(double seconds) {
+        return Math.round(seconds * 100) / 100.0;
+    }
+
+    /**
+     * Write a corpus to disk: {@code <directory> [count] [durations, e.g. 30,120,600] [sampleRate] [seed]}
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "target/speech-corpus");
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        List<Double> durations = args.length > 2
+                ? Arrays.stream(args[2].split(",")).map(Double::parseDouble).toList() : List.of(30.0, 120.0);
+        int sampleRate = args.length > 3 ? Integer.parseInt(args[3]) : 44_100;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        for (Recording recording : corpus(count, durations, sampleRate, seed)) {
+            recording.write(directory);
+            System.out.println(directory.resolve(recording.fileName()));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.tranquility.SpeakSmart.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Results of one load test run: latency samples per stage, job outcomes and the peaks seen by
+ * the sampler. Printed as a table and written as JSON so runs can be compared.
+ */
+final class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99};
+
+    private final Map<String, List<Long>> latencies = new ConcurrentSkipListMap<>();
+    private final Map<String, AtomicInteger> outcomes = new ConcurrentSkipListMap<>();
+    private final Map<String, Double> peaks = new ConcurrentHashMap<>();
+    private final Map<String, Object> settings = new LinkedHashMap<>();
+    private volatile long startedAtMs;
+    private volatile long finishedAtMs;
+    private volatile double audioSeconds;
+
+    void setting(String name, Object value) {
+        settings.put(name, value);
+    }
+
+    void start() {
+        startedAtMs = System.currentTimeMillis();
+    }
+
+    void finish() {
+        finishedAtMs = System.currentTimeMillis();
+    }
+
+    void latency(String stage, long millis) {
+        if (millis >= 0) {
+            List<Long> samples = latencies.computeIfAbsent(stage, s -> new ArrayList<>());
+            synchronized (samples) {
+                samples.add(millis);
+            }
+        }
+    }
+
+    void outcome(String status) {
+        outcomes.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+    }
+
+    synchronized void completedAudio(double seconds) {
+        audioSeconds += seconds;
+    }
+
+    void peak(String gauge, double value) {
+        peaks.merge(gauge, value, Math::max);
+    }
+
+    Map<String, Object> toMap() {
+        double wallSeconds = Math.max(1, finishedAtMs - startedAtMs) / 1000.0;
+        int completed = outcomes.getOrDefault("COMPLETED", new AtomicInteger()).get();
+
+        Map<String, Object> throughput = new LinkedHashMap<>();
+        throughput.put("wall_seconds", round(wallSeconds));
+        throughput.put("jobs_per_minute", round(completed * 60 / wallSeconds));
+        throughput.put("audio_seconds_per_second", round(audioSeconds / wallSeconds));
+
+        Map<String, Object> stages = new LinkedHashMap<>();
+        latencies.forEach((stage, samples) -> {
+            long[] sorted;
+            synchronized (samples) {
+                sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+            }
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", sorted.length);
+            for (double p : PERCENTILES) {
+                summary.put("p" + (int) p, percentile(sorted, p));
+            }
+            summary.put("max", sorted.length > 0 ? sorted[sorted.length - 1] : 0);
+            summary.put("mean", round(Arrays.stream(sorted).average().orElse(0)));
+            stages.put(stage, summary);
+        });
+
+        Map<String, Object> outcomeCounts = new LinkedHashMap<>();
+        outcomes.forEach((status, count) -> outcomeCounts.put(status, count.get()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("started_at", Instant.ofEpochMilli(startedAtMs).toString());
+        report.put("settings", settings);
+        report.put("outcomes", outcomeCounts);
+        report.put("throughput", throughput);
+        report.put("latency_ms", stages);
+        report.put("peaks", new TreeMap<>(peaks));
+        return report;
+    }
+
+    String toTable() {
+        Map<String, Object> report = toMap();
+        StringBuilder out = new StringBuilder("\n==== Pipeline load test ====\n");
+        out.append("settings:   ").append(report.get("settings")).append('\n');
+        out.append("outcomes:   ").append(report.get("outcomes")).append('\n');
+        out.append("throughput: ").append(report.get("throughput")).append('\n');
+        out.append(String.format("%-24s %6s %8s %8s %8s %8s %8s%n", "latency (ms)", "n", "p50", "p90", "p95", "p99", "max"));
+        ((Map<?, ?>) report.get("latency_ms")).forEach((stage, value) -> {
+            Map<?, ?> s = (Map<?, ?>) value;
+            out.append(String.format("%-24s %6s %8s %8s %8s %8s %8s%n", stage,
+                    s.get("count"), s.get("p50"), s.get("p90"), s.get("p95"), s.get("p99"), s.get("max")));
+        });
+        out.append("peaks:\n");
+        ((Map<?, ?>) report.get("peaks")).forEach((gauge, value) ->
+                out.append(String.format("  %-40s %s%n", gauge, value)));
+        return out.toString();
+    }
+
+    Path write(Path directory, String label) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("load-" + label + "-" + startedAtMs + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), toMap());
+        return file;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
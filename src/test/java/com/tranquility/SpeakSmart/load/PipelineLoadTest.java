@@ -0,0 +1,279 @@
+package com.tranquility.SpeakSmart.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tranquility.SpeakSmart.audio.SpeechAudioGenerator;
+import com.tranquility.SpeakSmart.audio.SpeechAudioGenerator.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test: uploads a synthetic corpus to {@code /ai/upload-audio}, polls
+ * {@code /ai/analysis/{id}} until each job settles, and reports throughput, per-stage latency
+ * percentiles, executor saturation (peak active/queued, rejections, queue wait) and the heap
+ * high-water mark.
+ * <p>
+ * Runs against an already started instance, normally the {@code offline} profile (Groq and
+ * Cloudinary stand-ins) with the {@code mongo} service from docker-compose, so only the
+ * pipeline itself is measured. Skipped unless {@code loadtest.base-url} is set; see the
+ * {@code load-test} Maven profile.
+ */
+@EnabledIfSystemProperty(named = "loadtest.base-url", matches = ".+")
+class PipelineLoadTest {
+
+    private static final int SAMPLE_RATE = 16_000;       // keeps uploads small, the server resamples anyway
+    private static final List<String> TERMINAL_STATUSES = List.of("COMPLETED", "FAILED");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    private final String baseUrl = System.getProperty("loadtest.base-url", "").replaceAll("/+$", "");
+    private final int jobs = Integer.getInteger("loadtest.jobs", 20);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 4);
+    private final List<Double> durations = Arrays.stream(System.getProperty("loadtest.durations", "30,60,120").split(","))
+            .map(String::trim).map(Double::parseDouble).toList();
+    private final long seed = Long.getLong("loadtest.seed", 42);
+    private final long pollIntervalMs = Long.getLong("loadtest.poll-interval-ms", 500);
+    private final long jobTimeoutMs = Long.getLong("loadtest.job-timeout-seconds", 900) * 1000;
+    private final long sampleIntervalMs = Long.getLong("loadtest.sample-interval-ms", 500);
+    private final String label = System.getProperty("loadtest.label", "run");
+    private final Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/load-test"));
+
+    private final LoadReport report = new LoadReport();
+    private String token;
+
+    @Test
+    void uploadAndPollCorpus() throws Exception {
+        report.setting("base_url", baseUrl);
+        report.setting("jobs", jobs);
+        report.setting("concurrency", concurrency);
+        report.setting("durations", durations);
+        report.setting("seed", seed);
+        report.setting("label", label);
+
+        token = authenticate();
+        List<Recording> corpus = SpeechAudioGenerator.corpus(jobs, durations, SAMPLE_RATE, seed);
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService users = Executors.newFixedThreadPool(concurrency);
+        sampler.scheduleWithFixedDelay(this::sampleServer, 0, sampleIntervalMs, TimeUnit.MILLISECONDS);
+        report.start();
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (Recording clip : corpus) {
+                runs.add(users.submit(() -> runJob(clip)));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        } finally {
+            report.finish();
+            users.shutdownNow();
+            sampler.shutdownNow();
+            sampler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        sampleServer();
+
+        System.out.println(report.toTable());
+        System.out.println("Report written to " + report.write(reportDir, label).toAbsolutePath());
+
+        Map<?, ?> outcomes = (Map<?, ?>) report.toMap().get("outcomes");
+        assertTrue(outcomes.containsKey("COMPLETED"), "No job completed: " + outcomes);
+    }
+
+    // ------------------- One virtual user job -------------------
+
+    private void runJob(Recording clip) {
+        long submittedAt = System.currentTimeMillis();
+        try {
+            HttpResponse<String> upload = http.send(multipart(clip), HttpResponse.BodyHandlers.ofString());
+            long uploadedAt = System.currentTimeMillis();
+            report.latency("client.upload", uploadedAt - submittedAt);
+            if (upload.statusCode() != 200) {
+                report.outcome("UPLOAD_" + upload.statusCode());
+                return;
+            }
+            String requestId = mapper.readTree(upload.body()).path("request_id").asText();
+
+            JsonNode status = poll(requestId, submittedAt, uploadedAt);
+            long endToEnd = System.currentTimeMillis() - submittedAt;
+            String outcome = status != null ? status.path("status").asText() : "TIMEOUT";
+            report.outcome(outcome);
+            if (!"COMPLETED".equals(outcome)) {
+                return;
+            }
+
+            report.latency("client.end_to_end", endToEnd);
+            report.completedAudio(clip.spec().getDurationSeconds());
+            serverSpan(status, "requested_at", "completed_at").ifPresent(ms -> report.latency("server.request_to_done", ms));
+            recordStages(status.path("analysis_result_url").asText());
+        } catch (Exception e) {
+            report.outcome("CLIENT_ERROR");
+            System.err.println("Load test job " + clip.fileName() + " failed: " + e);
+        }
+    }
+
+    private JsonNode poll(String requestId, long submittedAt, long uploadedAt) throws Exception {
+        long firstProcessingSeen = -1;
+        while (System.currentTimeMillis() - submittedAt < jobTimeoutMs) {
+            HttpResponse<String> response = http.send(get("/ai/analysis/" + requestId), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                JsonNode status = mapper.readTree(response.body());
+                String state = status.path("status").asText();
+                if ("PROCESSING".equals(state) && firstProcessingSeen < 0) {
+                    firstProcessingSeen = System.currentTimeMillis();
+                    report.latency("client.queue_wait", firstProcessingSeen - uploadedAt);
+                }
+                if (TERMINAL_STATUSES.contains(state)) {
+                    return status;
+                }
+            }
+            Thread.sleep(pollIntervalMs);
+        }
+        return null;
+    }
+
+    /**
+     * Per-stage timings the pipeline stores in the result document
+     */
+    private void recordStages(String resultUrl) throws Exception {
+        if (resultUrl.isBlank()) {
+            return;
+        }
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(resultUrl)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode metrics = mapper.readTree(response.body()).path("processingMetrics");
+        for (Map.Entry<String, JsonNode> stage : metrics.path("stageTimeMs").properties()) {
+            report.latency("stage." + stage.getKey(), stage.getValue().asLong());
+        }
+        for (Map.Entry<String, JsonNode> stage : metrics.path("stageCpuMs").properties()) {
+            report.latency("cpu." + stage.getKey(), stage.getValue().asLong());
+        }
+        if (metrics.has("totalProcessingTimeMs")) {
+            report.latency("stage.total", metrics.path("totalProcessingTimeMs").asLong());
+        }
+        if (metrics.has("allocatedBytes")) {
+            report.peak("job.allocated_mb", metrics.path("allocatedBytes").asDouble() / (1024 * 1024));
+        }
+    }
+
+    // ------------------- Server sampling -------------------
+
+    /**
+     * Heap and executor gauges from the actuator, keeping the peak of each
+     */
+    private void sampleServer() {
+        try {
+            metric("jvm.memory.used", "area:heap").ifPresent(bytes -> report.peak("heap.used_mb", bytes / (1024 * 1024)));
+            for (String executor : tagValues("executor.active", "name")) {
+                String tag = "name:" + executor;
+                metric("executor.active", tag).ifPresent(v -> report.peak("executor." + executor + ".active", v));
+                metric("executor.queued", tag).ifPresent(v -> report.peak("executor." + executor + ".queued", v));
+                metric("executor.pool.max", tag).ifPresent(v -> report.peak("executor." + executor + ".pool_max", v));
+                metric("executor.rejected", tag, "COUNT").ifPresent(v -> report.peak("executor." + executor + ".rejected", v));
+                metric("executor.queue.wait", tag, "MAX").ifPresent(v -> report.peak("executor." + executor + ".wait_max_s", v));
+            }
+        } catch (Exception e) {
+            // sampling is best effort, the run goes on without it
+        }
+    }
+
+    private Optional<Double> metric(String name, String tag) throws Exception {
+        return metric(name, tag, "VALUE");
+    }
+
+    private Optional<Double> metric(String name, String tag, String statistic) throws Exception {
+        HttpResponse<String> response = http.send(
+                get("/actuator/metrics/" + name + "?tag=" + tag), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return Optional.empty();
+        }
+        for (JsonNode measurement : mapper.readTree(response.body()).path("measurements")) {
+            if (statistic.equals(measurement.path("statistic").asText())) {
+                return Optional.of(measurement.path("value").asDouble());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<String> tagValues(String name, String tag) throws Exception {
+        HttpResponse<String> response = http.send(get("/actuator/metrics/" + name), HttpResponse.BodyHandlers.ofString());
+        List<String> values = new ArrayList<>();
+        if (response.statusCode() == 200) {
+            for (JsonNode available : mapper.readTree(response.body()).path("availableTags")) {
+                if (tag.equals(available.path("tag").asText())) {
+                    available.path("values").forEach(v -> values.add(v.asText()));
+                }
+            }
+        }
+        return values;
+    }
+
+    // ------------------- HTTP helpers -------------------
+
+    private String authenticate() throws Exception {
+        String email = "loadtest-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+        String body = mapper.writeValueAsString(Map.of("name", "Load Test", "email", email, "password", "load-test-password"));
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(response.statusCode() == 200, "Registering the load test user failed with " + response.statusCode());
+        return response.body().trim();
+    }
+
+    private HttpRequest get(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest multipart(Recording clip) {
+        String boundary = "----loadtest" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(clip.wav().length + 512);
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + clip.fileName() + "\"\r\n"
+                + "Content-Type: audio/wav\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(clip.wav());
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/ai/upload-audio"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+
+    private static Optional<Long> serverSpan(JsonNode status, String from, String to) {
+        try {
+            return Optional.of(Duration.between(Instant.parse(status.path(from).asText()),
+                    Instant.parse(status.path(to).asText())).toMillis());
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+}
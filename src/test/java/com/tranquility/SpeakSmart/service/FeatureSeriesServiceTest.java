@@ -0,0 +1,140 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.tranquility.SpeakSmart.model.AnalysisFeatures;
+import com.tranquility.SpeakSmart.model.FeatureVector;
+import com.tranquility.SpeakSmart.repository.AnalysisFeaturesRepository;
+import com.tranquility.SpeakSmart.service.FeatureSeriesService.SeriesWindow;
+import com.tranquility.SpeakSmart.util.FeaturePyramid;
+import com.tranquility.SpeakSmart.util.FeatureVectorCodec;
+import com.tranquility.SpeakSmart.util.FeatureVectorCodec.Series;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FeatureSeriesServiceTest {
+
+    private static final double STEP = 512.0 / 16_000;
+    private static final float SPIKE = 0.9f;
+
+    // frames 229 to 5871, with a spike on the frame just outside each end
+    private static final double START = 7.3;
+    private static final double END = 187.9;
+
+    private final AnalysisFeaturesRepository repository = mock(AnalysisFeaturesRepository.class);
+    private final FeatureSeriesService service = new FeatureSeriesService();
+
+    FeatureSeriesServiceTest() {
+        ReflectionTestUtils.setField(service, "analysisFeaturesRepository", repository);
+        ReflectionTestUtils.setField(service, "maxPointsLimit", 2000);
+    }
+
+    @Test
+    void shortWindowsAreServedAtFullResolution() throws Exception {
+        byte[] data = FeatureVectorCodec.encode(fiveMinutesOfEnergy(0.05f));
+        store(data, null);
+
+        SeriesWindow window = service.window("r1", Series.ENERGY, 10, 12.0, 100).orElseThrow();
+
+        float[] stored = FeatureVectorCodec.decode(data).getEnergyRms();
+        assertEquals(STEP, window.resolutionSeconds());
+        assertEquals(63, window.time().length);
+        assertEquals(313 * STEP, window.time()[0], 1e-4);
+        assertArrayEquals(Arrays.copyOfRange(stored, 313, 376), window.mean());
+        assertArrayEquals(window.mean(), window.min());
+        assertArrayEquals(window.mean(), window.max());
+    }
+
+    @Test
+    void levelBucketsStopAtTheWindowEdges() throws Exception {
+        byte[] data = FeatureVectorCodec.encode(fiveMinutesOfEnergy(0.05f));
+        store(data, null);
+
+        SeriesWindow window = service.window("r1", Series.ENERGY, START, END, 100).orElseThrow();
+
+        float[] stored = FeatureVectorCodec.decode(data).getEnergyRms();
+        float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+        for (int i = 229; i <= 5871; i++) {
+            min = Math.min(min, stored[i]);
+            max = Math.max(max, stored[i]);
+        }
+        assertEquals(100, window.time().length);
+        assertEquals(START, window.time()[0], 1e-9);
+        assertEquals((END - START) / 100, window.resolutionSeconds(), 1e-9);
+        assertEquals(min, minOf(window.min()), 1e-4);
+        assertEquals(max, maxOf(window.max()), 1e-4);
+        assertTrue(maxOf(window.max()) < SPIKE);
+    }
+
+    @Test
+    void pyramidIsUsedOnlyWhenItsBucketsAreFineEnough() throws Exception {
+        // a pyramid of different values shows which points were answered from it
+        byte[] pyramid = FeaturePyramid.build(
+                new FeatureVectorCodec.Reader(FeatureVectorCodec.encode(fiveMinutesOfEnergy(0.5f)))).encode();
+        store(FeatureVectorCodec.encode(fiveMinutesOfEnergy(0.05f)), pyramid);
+
+        SeriesWindow coarse = service.window("r1", Series.ENERGY, START, END, 100).orElseThrow();
+        SeriesWindow fine = service.window("r1", Series.ENERGY, 20, 30.0, 60).orElseThrow();
+
+        assertTrue(coarse.mean()[50] > 0.4, "middle point from the pyramid: " + coarse.mean()[50]);
+        assertTrue(maxOf(fine.max()) < 0.2, "buckets narrower than a level bucket come from the samples");
+        assertEquals(60, fine.time().length);
+    }
+
+    @Test
+    void pointsAreCappedByTheConfiguredLimit() throws Exception {
+        ReflectionTestUtils.setField(service, "maxPointsLimit", 50);
+        store(FeatureVectorCodec.encode(fiveMinutesOfEnergy(0.05f)), null);
+
+        SeriesWindow window = service.window("r1", Series.ENERGY, 0, null, 1000).orElseThrow();
+
+        assertEquals(50, window.time().length);
+        assertEquals(300.0 / 50, window.resolutionSeconds(), 1e-9);
+    }
+
+    private void store(byte[] data, byte[] pyramid) {
+        AnalysisFeatures features = new AnalysisFeatures();
+        features.setRequestId("r1");
+        features.setFormatVersion(FeatureVectorCodec.FORMAT_VERSION);
+        features.setData(data);
+        features.setPyramid(pyramid);
+        when(repository.findById("r1")).thenReturn(Optional.of(features));
+    }
+
+    private static FeatureVector fiveMinutesOfEnergy(float level) {
+        Random random = new Random(11);
+        int frames = (int) (300 / STEP);
+        FeatureVector features = new FeatureVector();
+        features.setDurationSeconds(300);
+        features.setFrameStepSeconds(STEP);
+        features.setEnergyTimes(new float[frames]);
+        features.setEnergyRms(new float[frames]);
+        for (int i = 0; i < frames; i++) {
+            features.getEnergyTimes()[i] = (float) (i * STEP);
+            features.getEnergyRms()[i] = level + 0.04f * (float) Math.sin(i / 50.0) * random.nextFloat();
+        }
+        features.getEnergyRms()[228] = SPIKE;
+        features.getEnergyRms()[5872] = SPIKE;
+        return features;
+    }
+
+    private static float minOf(float[] values) {
+        float min = Float.MAX_VALUE;
+        for (float value : values) min = Math.min(min, value);
+        return min;
+    }
+
+    private static float maxOf(float[] values) {
+        float max = -Float.MAX_VALUE;
+        for (float value : values) max = Math.max(max, value);
+        return max;
+    }
+}
@@ -0,0 +1,53 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.tranquility.SpeakSmart.model.AnalysisResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FillerWordAnalysisTest {
+
+    private final SpeechAnalysisService service = new SpeechAnalysisService();
+
+    @Test
+    void fillersMatchOnlyWholeWords() {
+        AnalysisResult.FillerWordAnalysis fillers = analyze(
+                "Umm, the summer was actually humid, uh, and factually, like, erm, basically fine. Hmmm.");
+
+        assertEquals(Map.of("umm", 1, "actually", 1, "uh", 1, "like", 1, "erm", 1, "basically", 1), fillers.getCounts());
+        assertEquals(List.of(0, 20, 36, 53, 61, 66), fillers.getOccurrences().stream()
+                .map(AnalysisResult.FillerOccurrence::getStartIndex).toList());
+    }
+
+    @Test
+    void occurrencesAreTimedWithinTheirSegment() {
+        AnalysisResult.FillerWordAnalysis fillers = analyze("So um I think you know it works");
+
+        assertEquals(List.of("um", "you know"), fillers.getOccurrences().stream()
+                .map(AnalysisResult.FillerOccurrence::getWord).toList());
+        assertEquals(3 / 31.0 * 10, fillers.getOccurrences().get(0).getTime(), 1e-9);
+    }
+
+    private AnalysisResult.FillerWordAnalysis analyze(String text) {
+        AnalysisResult result = new AnalysisResult();
+        AnalysisResult.AudioMetadata metadata = new AnalysisResult.AudioMetadata();
+        metadata.setDurationSeconds(10);
+        result.setAudioMetadata(metadata);
+        AnalysisResult.TranscriptionResult transcription = new AnalysisResult.TranscriptionResult();
+        transcription.setFullText(text);
+        transcription.setNoOfWords(text.split("\\s+").length);
+        result.setTranscription(transcription);
+        AnalysisResult.SpeechSegment segment = new AnalysisResult.SpeechSegment();
+        segment.setStart(0);
+        segment.setEnd(10);
+        segment.setStartIndex(0);
+        segment.setEndIndex(text.length());
+        AnalysisResult.SpeechRateAnalysis speechRate = new AnalysisResult.SpeechRateAnalysis();
+        speechRate.setSegments(List.of(segment));
+        result.setSpeechRate(speechRate);
+        return service.analyzeFillerWords(result, new ScoringModelV1());
+    }
+}
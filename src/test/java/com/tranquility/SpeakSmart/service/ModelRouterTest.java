@@ -0,0 +1,104 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.tranquility.SpeakSmart.config.LlmRoutingProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelRouterTest {
+
+    private static final String TASK = "speech";
+
+    private final LlmRoutingProperties properties = new LlmRoutingProperties();
+    private final ModelRouter router = new ModelRouter();
+    private final List<String> attempts = new ArrayList<>();
+
+    ModelRouterTest() {
+        LlmRoutingProperties.Task route = new LlmRoutingProperties.Task();
+        route.setModels(List.of("primary", "fallback"));
+        route.setLatencyBudgetMs(5_000);
+        route.setTimeoutMs(10_000);
+        properties.setMinSamples(2);
+        properties.setTasks(Map.of(TASK, route));
+        ReflectionTestUtils.setField(router, "properties", properties);
+    }
+
+    @Test
+    void clientErrorsDoNotFailOver() {
+        HttpClientErrorException badRequest = new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+
+        Exception thrown = assertThrows(Exception.class, () -> router.execute(TASK, (model, timeoutMs) -> {
+            attempts.add(model);
+            throw badRequest;
+        }));
+
+        assertSame(badRequest, thrown);
+        assertEquals(List.of("primary"), attempts);
+        assertEquals(0, router.health(TASK).get(0).samples(), "a rejected request says nothing about the model");
+    }
+
+    @Test
+    void serverErrorsAndRateLimitsFailOver() throws Exception {
+        for (HttpStatus status : List.of(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.TOO_MANY_REQUESTS)) {
+            String result = router.execute(TASK, (model, timeoutMs) -> {
+                attempts.add(model);
+                if (model.equals("primary")) {
+                    throw status.is5xxServerError() ? new HttpServerErrorException(status) : new HttpClientErrorException(status);
+                }
+                return "from " + model;
+            });
+            assertEquals("from fallback", result);
+        }
+
+        assertEquals(List.of("primary", "fallback", "primary", "fallback"), attempts);
+        assertEquals(1.0, router.health(TASK).get(0).errorRate());
+    }
+
+    @Test
+    void attemptsShareOneDeadline() {
+        properties.getTasks().get(TASK).setTimeoutMs(1_500);
+        List<Integer> timeouts = new ArrayList<>();
+
+        Exception thrown = assertThrows(Exception.class, () -> router.execute(TASK, (model, timeoutMs) -> {
+            attempts.add(model);
+            timeouts.add(timeoutMs);
+            Thread.sleep(600);
+            throw new ResourceAccessException("Read timed out", new SocketTimeoutException());
+        }));
+
+        assertTrue(thrown instanceof ResourceAccessException);
+        assertEquals(List.of("primary"), attempts, "less than " + ModelRouter.MIN_ATTEMPT_MS + " ms left for the fallback");
+        assertTrue(timeouts.get(0) <= 1_500 && timeouts.get(0) > 1_400, "first attempt got " + timeouts.get(0));
+    }
+
+    @Test
+    void failingModelIsDemotedOnceItHasEnoughSamples() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            router.execute(TASK, (model, timeoutMs) -> {
+                if (model.equals("primary")) {
+                    throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+                }
+                return model;
+            });
+        }
+
+        assertEquals("fallback", router.execute(TASK, (model, timeoutMs) -> {
+            attempts.add(model);
+            return model;
+        }));
+        assertEquals(List.of("fallback"), attempts);
+    }
+}
@@ -0,0 +1,69 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.tranquility.SpeakSmart.audio.SpeechAudioGenerator;
+import com.tranquility.SpeakSmart.audio.SpeechAudioGenerator.Pause;
+import com.tranquility.SpeakSmart.model.AnalysisResult;
+import com.tranquility.SpeakSmart.model.FeatureVector;
+import com.tranquility.SpeakSmart.util.FeatureVectorCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rescoring the stored feature vector of an analysis with the model it was scored with must give
+ * back the scores of the live analysis.
+ */
+class RescoringTest {
+
+    private final SpeechAnalysisService service = new SpeechAnalysisService();
+    private final ScoringModel scoring = new ScoringModelV1();
+
+    @Test
+    void storedFeaturesRescoreToTheLiveScores() throws Exception {
+        SpeechAudioGenerator.Spec spec = new SpeechAudioGenerator.Spec();
+        spec.setDurationSeconds(30);
+        spec.setPauses(List.of(new Pause(6, 0.8), new Pause(14, 1.2), new Pause(22, 0.6)));
+        SpeechAnalysisService.AudioData audioData = service.loadAudioData(SpeechAudioGenerator.generate(spec).wav());
+        SpeechAnalysisService.AudioAnalysisResults features = service.performSinglePassAnalysis(audioData);
+
+        AnalysisResult live = new AnalysisResult();
+        AnalysisResult.AudioMetadata metadata = new AnalysisResult.AudioMetadata();
+        metadata.setDurationSeconds(audioData.getDuration());
+        metadata.setSampleRate(audioData.getSampleRate());
+        live.setAudioMetadata(metadata);
+        AnalysisResult.TranscriptionResult transcription = new AnalysisResult.TranscriptionResult();
+        transcription.setNoOfWords(75);
+        live.setTranscription(transcription);
+        AnalysisResult.SpeechRateAnalysis speechRate = new AnalysisResult.SpeechRateAnalysis();
+        speechRate.setSegments(List.of(segment(0, 10, 140), segment(10, 20, 160), segment(20, 30, 150)));
+        live.setSpeechRate(speechRate);
+        AnalysisResult.FillerWordAnalysis fillerWords = new AnalysisResult.FillerWordAnalysis();
+        fillerWords.setTotalFillers(2);
+        live.setFillerWords(fillerWords);
+        live.setIntonation(service.calculateIntonationAnalysis(
+                features.getPitchTimeSeries(), features.getPitchValues(), audioData.getDuration(), scoring));
+        service.analyzeEnergyAndPauses(features.getEnergyTimeSeries(), live, scoring);
+
+        FeatureVector stored = FeatureVectorCodec.decode(
+                FeatureVectorCodec.encode(service.extractFeatures(audioData, features, live)));
+        AnalysisResult rescored = service.scoreFeatures(stored, scoring);
+
+        assertEquals(live.getIntonation().getScore(), rescored.getIntonation().getScore(), 0.01);
+        assertEquals(live.getEnergy().getScore(), rescored.getEnergy().getScore(), 0.01);
+        assertEquals(live.getPauses().getTotalPauses(), rescored.getPauses().getTotalPauses());
+        assertEquals(live.getPauses().getScore(), rescored.getPauses().getScore(), 0.01);
+        assertEquals(scoring.speechRateScore(150), rescored.getSpeechRate().getScore(), 1e-9);
+        assertEquals(scoring.fillerScore(4), rescored.getFillerWords().getScore(), 1e-6);
+        assertEquals(scoring.version(), rescored.getScoringVersion());
+    }
+
+    private static AnalysisResult.SpeechSegment segment(double start, double end, double wpm) {
+        AnalysisResult.SpeechSegment segment = new AnalysisResult.SpeechSegment();
+        segment.setStart(start);
+        segment.setEnd(end);
+        segment.setSpeechRate(wpm);
+        return segment;
+    }
+}
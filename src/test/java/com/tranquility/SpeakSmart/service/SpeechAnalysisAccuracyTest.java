@@ -0,0 +1,93 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.tranquility.SpeakSmart.audio.SpeechAudioGenerator;
+import com.tranquility.SpeakSmart.audio.SpeechAudioGenerator.Pause;
+import com.tranquility.SpeakSmart.audio.SpeechAudioGenerator.PitchPoint;
+import com.tranquility.SpeakSmart.audio.SpeechAudioGenerator.Recording;
+import com.tranquility.SpeakSmart.model.AnalysisResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the DSP stages of {@link SpeechAnalysisService} against the ground truth of synthetic
+ * recordings, so engine changes that shift pitch, energy or pause results show up here.
+ */
+class SpeechAnalysisAccuracyTest {
+
+    private final SpeechAnalysisService service = new SpeechAnalysisService();
+    private final ScoringModel scoring = new ScoringModelV1();
+
+    @Test
+    void averagePitchFollowsTheContour() throws Exception {
+        SpeechAudioGenerator.Spec spec = new SpeechAudioGenerator.Spec();
+        spec.setDurationSeconds(20);
+        spec.setF0Contour(List.of(new PitchPoint(0, 120), new PitchPoint(10, 200), new PitchPoint(20, 120)));
+        Recording recording = SpeechAudioGenerator.generate(spec);
+
+        AnalysisResult result = analyze(recording);
+
+        double truth = recording.truth().meanF0();
+        assertEquals(truth, result.getIntonation().getAveragePitch(), truth * 0.05);
+        assertEquals(recording.truth().f0StdDev() / truth, result.getIntonation().getPitchVariation(), 0.05);
+    }
+
+    @Test
+    void expressiveSpeechVariesMoreThanMonotone() throws Exception {
+        SpeechAudioGenerator.Spec monotone = new SpeechAudioGenerator.Spec();
+        monotone.setDurationSeconds(15);
+        monotone.setF0DeclinationHz(0);
+        monotone.setF0ModulationDepth(0.02);
+        SpeechAudioGenerator.Spec expressive = new SpeechAudioGenerator.Spec();
+        expressive.setDurationSeconds(15);
+        expressive.setF0ModulationDepth(0.3);
+
+        double monotoneVariation = analyze(SpeechAudioGenerator.generate(monotone)).getIntonation().getPitchVariation();
+        double expressiveVariation = analyze(SpeechAudioGenerator.generate(expressive)).getIntonation().getPitchVariation();
+
+        assertTrue(expressiveVariation > 3 * monotoneVariation,
+                "expressive " + expressiveVariation + " vs monotone " + monotoneVariation);
+    }
+
+    @Test
+    void pausesAreFoundWhereTheyWereInserted() throws Exception {
+        SpeechAudioGenerator.Spec spec = new SpeechAudioGenerator.Spec();
+        spec.setDurationSeconds(30);
+        spec.setPauses(List.of(new Pause(4, 0.6), new Pause(11, 1.5), new Pause(18, 0.8), new Pause(25, 1.0)));
+        Recording recording = SpeechAudioGenerator.generate(spec);
+
+        AnalysisResult.PauseAnalysis pauses = analyze(recording).getPauses();
+
+        assertEquals(4, pauses.getTotalPauses());
+        assertEquals(11, pauses.getLongestPause().getStartTime(), 0.1);
+        assertEquals(1.5, pauses.getLongestPause().getDuration(), 0.1);
+        assertEquals(3.9, pauses.getTotalPauseDuration(), 0.4);
+    }
+
+    @Test
+    void generatorIsDeterministic() {
+        List<Recording> first = SpeechAudioGenerator.corpus(2, List.of(5.0), 16_000, 7);
+        List<Recording> second = SpeechAudioGenerator.corpus(2, List.of(5.0), 16_000, 7);
+        for (int i = 0; i < first.size(); i++) {
+            assertArrayEquals(first.get(i).wav(), second.get(i).wav());
+        }
+    }
+
+    private AnalysisResult analyze(Recording recording) throws Exception {
+        SpeechAnalysisService.AudioData audioData = service.loadAudioData(recording.wav());
+        SpeechAnalysisService.AudioAnalysisResults features = service.performSinglePassAnalysis(audioData);
+
+        AnalysisResult result = new AnalysisResult();
+        AnalysisResult.AudioMetadata metadata = new AnalysisResult.AudioMetadata();
+        metadata.setDurationSeconds(audioData.getDuration());
+        result.setAudioMetadata(metadata);
+        result.setIntonation(service.calculateIntonationAnalysis(
+                features.getPitchTimeSeries(), features.getPitchValues(), audioData.getDuration(), scoring));
+        service.analyzeEnergyAndPauses(features.getEnergyTimeSeries(), result, scoring);
+        return result;
+    }
+}
@@ -0,0 +1,167 @@
+package com.tranquility.SpeakSmart.service;
+
+import com.tranquility.SpeakSmart.audio.SpeechAudioGenerator;
+import com.tranquility.SpeakSmart.model.AnalysisResult;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the DSP stages of {@link SpeechAnalysisService} over 30 s, 2 min and 10 min
+ * synthetic recordings at the 44.1 kHz mono the pipeline converts uploads to.
+ * <p>
+ * Besides ops/s, each benchmark reports {@code audioSeconds} and {@code cpuSeconds} per second;
+ * {@link #main} divides them into audio seconds processed per CPU second, and the GC profiler adds
+ * the allocation rate. Run with {@code mvn test -Pjmh}, JMH options go in {@code -Djmh.args}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class SpeechAnalysisBenchmark {
+
+    private static final int SAMPLE_RATE = 44_100;
+    private static final long SEED = 42;
+
+    @Param({"30", "120", "600"})
+    public int durationSeconds;
+
+    private final SpeechAnalysisService service = new SpeechAnalysisService();
+    private final ScoringModel scoring = new ScoringModelV1();
+
+    private byte[] wav;
+    private SpeechAnalysisService.AudioData audioData;
+    private SpeechAnalysisService.AudioAnalysisResults features;
+    private AnalysisResult.IntonationAnalysis intonation;
+    private double pitchMean;
+    private double pitchStdDev;
+
+    /**
+     * Audio seconds and CPU seconds consumed, which JMH reports per second of the iteration
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+
+        private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+        public double audioSeconds;
+        public double cpuSeconds;
+        private long cpuStartNanos;
+
+        @Setup(Level.Iteration)
+        public void start() {
+            audioSeconds = 0;
+            cpuSeconds = 0;
+            cpuStartNanos = THREADS.getCurrentThreadCpuTime();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            cpuSeconds = (THREADS.getCurrentThreadCpuTime() - cpuStartNanos) / 1e9;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void prepare() throws Exception {
+        wav = SpeechAudioGenerator.corpus(1, List.of((double) durationSeconds), SAMPLE_RATE, SEED).get(0).wav();
+        audioData = service.loadAudioData(wav);
+        features = service.performSinglePassAnalysis(audioData);
+        intonation = service.calculateIntonationAnalysis(
+                features.getPitchTimeSeries(), features.getPitchValues(), audioData.getDuration(), scoring);
+        pitchMean = intonation.getAveragePitch();
+        pitchStdDev = intonation.getPitchVariation() * pitchMean;
+    }
+
+    @Benchmark
+    public Object loadAudioData(Throughput throughput) {
+        throughput.audioSeconds += durationSeconds;
+        return service.loadAudioData(wav);
+    }
+
+    @Benchmark
+    public Object performSinglePassAnalysis(Throughput throughput) throws Exception {
+        throughput.audioSeconds += durationSeconds;
+        return service.performSinglePassAnalysis(audioData);
+    }
+
+    @Benchmark
+    public Object calculateIntonationAnalysis(Throughput throughput) {
+        throughput.audioSeconds += durationSeconds;
+        return service.calculateIntonationAnalysis(
+                features.getPitchTimeSeries(), features.getPitchValues(), audioData.getDuration(), scoring);
+    }
+
+    @Benchmark
+    public Object analyzeEnergyAndPauses(Throughput throughput) {
+        throughput.audioSeconds += durationSeconds;
+        AnalysisResult result = new AnalysisResult();
+        AnalysisResult.AudioMetadata metadata = new AnalysisResult.AudioMetadata();
+        metadata.setDurationSeconds(audioData.getDuration());
+        result.setAudioMetadata(metadata);
+        result.setIntonation(intonation);
+        service.analyzeEnergyAndPauses(features.getEnergyTimeSeries(), result, scoring);
+        return result;
+    }
+
+    @Benchmark
+    public double calculatePitchVariationScore(Throughput throughput) {
+        throughput.audioSeconds += durationSeconds;
+        return scoring.pitchVariationScore(features.getPitchValues(), pitchMean, pitchStdDev);
+    }
+
+    /**
+     * Runs the benchmarks with the GC profiler and prints audio seconds per CPU second for each
+     */
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(SpeechAnalysisBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        System.out.printf("%n%-32s %10s %22s %16s%n", "Benchmark", "audio (s)", "audio s / CPU s", "alloc (KB/op)");
+        for (RunResult run : results) {
+            BenchmarkParams params = run.getParams();
+            Result<?> audio = run.getSecondaryResults().get("audioSeconds");
+            Result<?> cpu = run.getSecondaryResults().get("cpuSeconds");
+            Result<?> alloc = run.getSecondaryResults().get("gc.alloc.rate.norm");
+            String method = params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1);
+            System.out.printf("%-32s %10s %22.1f %16.1f%n", method, params.getParam("durationSeconds"),
+                    audio != null && cpu != null && cpu.getScore() > 0 ? audio.getScore() / cpu.getScore() : Double.NaN,
+                    alloc != null ? alloc.getScore() / 1024 : Double.NaN);
+        }
+    }
+}
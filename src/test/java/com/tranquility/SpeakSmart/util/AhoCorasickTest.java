@@ -0,0 +1,49 @@
+package com.tranquility.SpeakSmart.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AhoCorasickTest {
+
+    @Test
+    void overlappingPatternsAreAllReported() {
+        List<String> patterns = List.of("he", "she", "his", "hers", "um", "umm");
+
+        List<String> matches = search(patterns, "ushers ummm");
+
+        assertEquals(List.of("she@1", "he@2", "hers@2", "um@7", "umm@7"), matches);
+    }
+
+    @Test
+    void matchingIgnoresCaseAndTreatsAnyWhitespaceAsSpace() {
+        List<String> patterns = List.of("you know", "i mean", ", like,");
+
+        assertEquals(List.of("you know@0", "i mean@10"), search(patterns, "You\tknow, I\nMEAN"));
+        assertEquals(List.of(", like,@2"), search(patterns, "so, like, ok"));
+    }
+
+    @Test
+    void unsupportedCharactersBreakMatches() {
+        List<String> patterns = List.of("you know", "um");
+
+        assertEquals(List.of(), search(patterns, "you-know u.m"));
+        assertEquals(List.of("um@3"), search(patterns, "42-um"));
+        assertThrows(IllegalArgumentException.class, () -> new AhoCorasick(List.of("u-m")));
+        assertThrows(IllegalArgumentException.class, () -> new AhoCorasick(List.of("")));
+    }
+
+    // "pattern@start", checking that each match spans exactly its pattern
+    private static List<String> search(List<String> patterns, String text) {
+        List<String> matches = new ArrayList<>();
+        new AhoCorasick(patterns).search(text, (pattern, start, end) -> {
+            assertEquals(patterns.get(pattern).length(), end - start);
+            matches.add(patterns.get(pattern) + "@" + start);
+        });
+        return matches;
+    }
+}
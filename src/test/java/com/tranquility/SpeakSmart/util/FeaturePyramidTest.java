@@ -0,0 +1,91 @@
+package com.tranquility.SpeakSmart.util;
+
+import com.tranquility.SpeakSmart.model.FeatureVector;
+import com.tranquility.SpeakSmart.util.FeatureVectorCodec.Series;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeaturePyramidTest {
+
+    private static final double STEP = 512.0 / 16_000;
+
+    @Test
+    void levelsSummariseTheStoredSamples() throws Exception {
+        FeatureVectorCodec.Reader reader = new FeatureVectorCodec.Reader(FeatureVectorCodec.encode(fiveMinutesOfEnergy()));
+        float[] stored = FeatureVectorCodec.decode(FeatureVectorCodec.encode(fiveMinutesOfEnergy())).getEnergyRms();
+
+        List<FeaturePyramid.Level> levels = FeaturePyramid.build(reader).levels(Series.ENERGY);
+
+        assertEquals(FeaturePyramid.FANOUT, levels.get(0).bucketFrames());
+        assertTrue(levels.get(levels.size() - 1).size() <= 16);
+        for (FeaturePyramid.Level level : levels) {
+            int bucket = level.size() / 2;
+            int first = (int) level.buckets()[bucket] * level.bucketFrames();
+            float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+            double sum = 0;
+            for (int i = first; i < first + level.bucketFrames(); i++) {
+                min = Math.min(min, stored[i]);
+                max = Math.max(max, stored[i]);
+                sum += stored[i];
+            }
+            assertEquals(level.bucketFrames(), level.counts()[bucket]);
+            assertEquals(min, level.min()[bucket]);
+            assertEquals(max, level.max()[bucket]);
+            assertEquals(sum / level.bucketFrames(), level.mean()[bucket], 1e-6);
+        }
+    }
+
+    @Test
+    void unvoicedStretchesLeaveNoBuckets() throws Exception {
+        FeatureVector features = new FeatureVector();
+        features.setFrameStepSeconds(STEP);
+        features.setPitchTimes(new float[]{0, (float) STEP, (float) (100 * STEP)});
+        features.setPitchHz(new float[]{120, 140, 200});
+
+        List<FeaturePyramid.Level> levels = FeaturePyramid.build(
+                new FeatureVectorCodec.Reader(FeatureVectorCodec.encode(features))).levels(Series.PITCH);
+
+        assertArrayEquals(new long[]{0, 12}, levels.get(0).buckets());
+        assertArrayEquals(new int[]{2, 1}, levels.get(0).counts());
+        assertEquals(130, levels.get(0).mean()[0]);
+    }
+
+    @Test
+    void encodingRoundTrips() throws Exception {
+        FeaturePyramid pyramid = FeaturePyramid.build(
+                new FeatureVectorCodec.Reader(FeatureVectorCodec.encode(fiveMinutesOfEnergy())));
+
+        FeaturePyramid decoded = FeaturePyramid.decode(pyramid.encode());
+
+        assertEquals(pyramid.frameStepSeconds(), decoded.frameStepSeconds());
+        for (int l = 0; l < pyramid.levels(Series.ENERGY).size(); l++) {
+            FeaturePyramid.Level level = pyramid.levels(Series.ENERGY).get(l);
+            FeaturePyramid.Level back = decoded.levels(Series.ENERGY).get(l);
+            assertArrayEquals(level.buckets(), back.buckets());
+            assertArrayEquals(level.counts(), back.counts());
+            assertArrayEquals(level.max(), back.max(), 1e-4f);
+            assertArrayEquals(level.mean(), back.mean(), 1e-4f);
+        }
+    }
+
+    private static FeatureVector fiveMinutesOfEnergy() {
+        Random random = new Random(11);
+        int frames = (int) (300 / STEP);
+        FeatureVector features = new FeatureVector();
+        features.setDurationSeconds(300);
+        features.setFrameStepSeconds(STEP);
+        features.setEnergyTimes(new float[frames]);
+        features.setEnergyRms(new float[frames]);
+        for (int i = 0; i < frames; i++) {
+            features.getEnergyTimes()[i] = (float) (i * STEP);
+            features.getEnergyRms()[i] = 0.05f + 0.04f * (float) Math.sin(i / 50.0) * random.nextFloat();
+        }
+        return features;
+    }
+}
@@ -0,0 +1,139 @@
+package com.tranquility.SpeakSmart.util;
+
+import com.tranquility.SpeakSmart.model.FeatureVector;
+import com.tranquility.SpeakSmart.util.FeatureVectorCodec.Series;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeatureVectorCodecTest {
+
+    private static final int SAMPLE_RATE = 16_000;
+    private static final double STEP = 512.0 / SAMPLE_RATE;
+
+    @Test
+    void roundTripKeepsSeriesWithinHalfPrecision() throws Exception {
+        FeatureVector features = tenMinutes();
+
+        byte[] encoded = FeatureVectorCodec.encode(features);
+        FeatureVector decoded = FeatureVectorCodec.decode(encoded);
+
+        assertEquals(features.getDurationSeconds(), decoded.getDurationSeconds());
+        assertEquals(features.getWordCount(), decoded.getWordCount());
+        assertArrayEquals(features.getSegmentWpm(), decoded.getSegmentWpm());
+        assertArrayEquals(features.getPitchTimes(), decoded.getPitchTimes(), 1e-4f);
+        assertArrayEquals(features.getEnergyTimes(), decoded.getEnergyTimes(), 1e-4f);
+        for (int i = 0; i < features.getPitchHz().length; i++) {
+            assertEquals(features.getPitchHz()[i], decoded.getPitchHz()[i], features.getPitchHz()[i] / 1024);
+        }
+        for (int i = 0; i < features.getEnergyRms().length; i++) {
+            assertEquals(features.getEnergyRms()[i], decoded.getEnergyRms()[i], Math.max(features.getEnergyRms()[i] / 1024, 1e-7));
+        }
+        // float16 values and mostly 1-byte deltas, against 8 bytes a sample raw
+        int samples = features.getPitchHz().length + features.getEnergyRms().length;
+        assertTrue(encoded.length < samples * 3, encoded.length + " bytes for " + samples + " samples");
+    }
+
+    @Test
+    void rangeReadReturnsOnlyTheWindow() throws Exception {
+        FeatureVector features = tenMinutes();
+        FeatureVectorCodec.Reader reader = new FeatureVectorCodec.Reader(FeatureVectorCodec.encode(features));
+
+        List<Double> times = new ArrayList<>();
+        reader.read(Series.ENERGY, 120, 150, (time, value) -> times.add(time));
+
+        long expected = 0;
+        for (float time : features.getEnergyTimes()) {
+            if (time >= 120 - 1e-4 && time <= 150 + 1e-4) expected++;
+        }
+        assertEquals(expected, times.size());
+        assertTrue(times.get(0) >= 120 && times.get(times.size() - 1) <= 150);
+    }
+
+    @Test
+    void formatOneStillDecodes() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(bytes);
+        header.writeInt(0x53534656);
+        header.writeByte(1);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeDouble(12.5);
+            out.writeInt(SAMPLE_RATE);
+            out.writeInt(30);
+            out.writeInt(2);
+            writeFloats(out, 0.032f, 0.064f);
+            writeFloats(out, 180f, 185f);
+            writeFloats(out, 0f);
+            writeFloats(out, 0.05f);
+            for (int i = 0; i < 3; i++) {
+                out.writeInt(1);
+                out.writeDouble(i == 2 ? 144 : i * 12.5);
+            }
+        }
+
+        FeatureVector decoded = FeatureVectorCodec.decode(bytes.toByteArray());
+
+        assertEquals(12.5, decoded.getDurationSeconds());
+        assertEquals(2, decoded.getFillerCount());
+        assertArrayEquals(new float[]{180f, 185f}, decoded.getPitchHz());
+        assertArrayEquals(new double[]{144}, decoded.getSegmentWpm());
+    }
+
+    @Test
+    void halfConversionRoundsToNearest() {
+        for (float value : new float[]{0f, 1f, -2.5f, 65504f, 6.1035156e-5f, 5.9604645e-8f, 123.456f}) {
+            float back = FeatureVectorCodec.fromHalf(FeatureVectorCodec.toHalf(value));
+            assertEquals(value, back, Math.abs(value) / 2048 + 3e-8f);
+        }
+        assertEquals(Float.POSITIVE_INFINITY, FeatureVectorCodec.fromHalf(FeatureVectorCodec.toHalf(1e6f)));
+    }
+
+    // Ten minutes of 16 kHz analysis frames, pitch on the voiced two thirds of them
+    private static FeatureVector tenMinutes() {
+        Random random = new Random(5);
+        int frames = (int) (600 / STEP);
+        FeatureVector features = new FeatureVector();
+        features.setDurationSeconds(600);
+        features.setSampleRate(SAMPLE_RATE);
+        features.setFrameStepSeconds(STEP);
+        features.setWordCount(1500);
+        features.setFillerCount(12);
+        features.setSegmentStarts(new double[]{0, 300});
+        features.setSegmentEnds(new double[]{300, 600});
+        features.setSegmentWpm(new double[]{148.5, 151.5});
+
+        List<float[]> pitch = new ArrayList<>();
+        features.setEnergyTimes(new float[frames]);
+        features.setEnergyRms(new float[frames]);
+        for (int i = 0; i < frames; i++) {
+            float time = (float) (i * STEP);
+            boolean voiced = i % 3 != 0;
+            features.getEnergyTimes()[i] = time;
+            features.getEnergyRms()[i] = voiced ? 0.03f + 0.04f * random.nextFloat() : 0.002f * random.nextFloat();
+            if (voiced) pitch.add(new float[]{time, 120 + 80 * random.nextFloat()});
+        }
+        features.setPitchTimes(new float[pitch.size()]);
+        features.setPitchHz(new float[pitch.size()]);
+        for (int i = 0; i < pitch.size(); i++) {
+            features.getPitchTimes()[i] = pitch.get(i)[0];
+            features.getPitchHz()[i] = pitch.get(i)[1];
+        }
+        return features;
+    }
+
+    private static void writeFloats(DataOutputStream out, float... values) throws Exception {
+        out.writeInt(values.length);
+        for (float value : values) {
+            out.writeFloat(value);
+        }
+    }
+}
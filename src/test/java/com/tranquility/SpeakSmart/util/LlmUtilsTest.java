@@ -0,0 +1,66 @@
+package com.tranquility.SpeakSmart.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LlmUtilsTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void thinkBlocksAndProseAreSkipped() {
+        String completion = "<think>The answer needs {\"a\": 0} shape</think>Sure! {\"a\": 1} Hope that helps {\"b\": 2}";
+
+        assertEquals("{\"a\": 1}", LlmUtils.extractJsonObject(completion));
+        assertNull(LlmUtils.extractJsonObject("<think>still thinking about {\"a\": 1}"));
+        assertNull(LlmUtils.extractJsonObject("No JSON here"));
+    }
+
+    @Test
+    void quotesAndBracesInsideStringsAreNotStructure() {
+        String json = "{\"text\": \"she said \\\"use {braces}\\\" and ]\", \"n\": [1, {\"x\": \"}\"}]}";
+
+        assertEquals(json, LlmUtils.extractJsonObject(json + " trailing } text"));
+    }
+
+    @Test
+    void truncatedValuesAreClosed() throws Exception {
+        assertRepaired("{\"a\":\"half a sent", "{\"a\":\"half a sent\"}");
+        assertRepaired("{\"a\":\"ends on escape \\", "{\"a\":\"ends on escape \"}");
+        assertRepaired("{\"list\":[\"one\",\"tw", "{\"list\":[\"one\",\"tw\"]}");
+        assertRepaired("{\"list\":[{\"x\":1},", "{\"list\":[{\"x\":1}]}");
+        assertRepaired("{\"a\":1, ", "{\"a\":1}");
+    }
+
+    @Test
+    void truncatedKeysAreDropped() throws Exception {
+        assertRepaired("{\"a\":1,\"key\"", "{\"a\":1}");
+        assertRepaired("{\"a\":1,\"ke", "{\"a\":1}");
+        assertRepaired("{\"a\":1,\"key\": ", "{\"a\":1}");
+        assertRepaired("{\"a\":{\"b\":\"x\",\"c", "{\"a\":{\"b\":\"x\"}}");
+        assertRepaired("{\"k\\\"ey\"", "{}");
+    }
+
+    @Test
+    void partialLiteralsAndEscapesAreDropped() throws Exception {
+        assertRepaired("{\"a\":1,\"b\": tr", "{\"a\":1}");
+        assertRepaired("{\"a\":1,\"b\":-", "{\"a\":1}");
+        assertRepaired("{\"a\":1,\"b\":2.", "{\"a\":1}");
+        assertRepaired("{\"a\":[1, 2, nu", "{\"a\":[1, 2]}");
+        assertRepaired("{\"a\":1,\"b\":\"caf\\u00e", "{\"a\":1}");
+        assertRepaired("{\"a\":[\"x\", \"\\u00", "{\"a\":[\"x\"]}");
+        // complete as far as they go, so kept
+        assertRepaired("{\"a\":true", "{\"a\":true}");
+        assertRepaired("{\"a\":12", "{\"a\":12}");
+        assertRepaired("{\"a\":\"caf\\u00e9", "{\"a\":\"caf\\u00e9\"}");
+    }
+
+    private static void assertRepaired(String truncated, String expected) throws Exception {
+        String repaired = LlmUtils.extractJsonObject(truncated);
+        assertEquals(expected, repaired);
+        MAPPER.readTree(repaired);
+    }
+}
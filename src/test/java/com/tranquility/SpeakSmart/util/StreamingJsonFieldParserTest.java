@@ -0,0 +1,55 @@
+package com.tranquility.SpeakSmart.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingJsonFieldParserTest {
+
+    private final Map<String, StringBuilder> fields = new LinkedHashMap<>();
+    private final List<String> deltas = new ArrayList<>();
+    private final StreamingJsonFieldParser parser = new StreamingJsonFieldParser((field, text) -> {
+        fields.computeIfAbsent(field, k -> new StringBuilder()).append(text);
+        deltas.add(text);
+    });
+
+    @Test
+    void fieldTextIsForwardedPerChunk() throws Exception {
+        parser.feed("{\"title\": \"Public sp");
+        parser.feed("eaking\", \"body\": \"Sta");
+        assertFalse(parser.isComplete());
+        parser.feed("nd tall\"}");
+
+        assertTrue(parser.isComplete());
+        assertEquals("Public speaking", fields.get("title").toString());
+        assertEquals("Stand tall", fields.get("body").toString());
+        assertEquals(List.of("Public sp", "eaking", "Sta", "nd tall"), deltas);
+    }
+
+    @Test
+    void keysAndEscapesSplitAcrossChunksAreDecoded() throws Exception {
+        for (String chunk : List.of("{\"ti", "tle\":\"say \\", "\"hi\\", "\" {not} \\u00", "e9\\n", "\"}")) {
+            parser.feed(chunk);
+        }
+
+        assertEquals("say \"hi\" {not} é\n", fields.get("title").toString());
+        assertTrue(parser.isComplete());
+    }
+
+    @Test
+    void thinkBlocksAndNonStringValuesAreSkipped() throws Exception {
+        parser.feed("<think>maybe {\"title\": \"no\"}</thi");
+        parser.feed("nk>Here: {\"score\": 7, \"tags\": [\"a\", {\"b\": \"}\"}], \"title\": \"yes\", \"done\": true}");
+
+        assertEquals(List.of("title"), List.copyOf(fields.keySet()));
+        assertEquals("yes", fields.get("title").toString());
+        assertTrue(parser.isComplete());
+    }
+}
@@ -0,0 +1,80 @@
+package com.tranquility.SpeakSmart.util;
+
+import com.tranquility.SpeakSmart.util.TextAnalytics.WordCount;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextAnalyticsTest {
+
+    @Test
+    void repeatedWordsAreOrderedByCountThenAlphabetically() {
+        String text = "Practice beats talent. Talent helps, practice wins; practice again. Focus, focus and talent.";
+
+        List<WordCount> top = TextAnalytics.topRepeatedWords(text, 10);
+
+        assertEquals(List.of(new WordCount("practice", 3), new WordCount("talent", 3), new WordCount("focus", 2)), top);
+        assertEquals(List.of(new WordCount("practice", 3)), TextAnalytics.topRepeatedWords(text, 1));
+    }
+
+    @Test
+    void onlyMeaningfulRepeatedWordsCount() {
+        // stop words, words under three letters, plain numbers and single occurrences are left out
+        String text = "The AI and the AI said 2024, 2024 and 2024 really really matter. Covid19 and covid19 once.";
+
+        assertEquals(List.of(new WordCount("covid19", 2)), TextAnalytics.topRepeatedWords(text, 10));
+        assertEquals(List.of(), TextAnalytics.topRepeatedWords(null, 10));
+    }
+
+    @Test
+    void curlyAndStraightApostrophesAreTheSameWord() {
+        String text = "The speaker’s pace and the speaker's pitch. Don’t stop, don't.";
+
+        assertEquals(List.of(new WordCount("speaker's", 2)), TextAnalytics.topRepeatedWords(text, 10));
+        assertEquals(5, TextAnalytics.countWords("Don’t stop 'quoted' speaker’s words"));
+    }
+
+    @Test
+    void countsSurviveTableResizes() {
+        StringBuilder text = new StringBuilder();
+        List<WordCount> expected = new ArrayList<>();
+        for (char a = 'a'; a <= 'j'; a++) {
+            for (char b = 'a'; b <= 'j'; b++) {
+                String word = "term" + a + b;
+                text.append(word).append(' ').append(word).append(' ');
+                if (a == 'a' && b == 'a') {
+                    text.append(word).append(' ');
+                }
+                expected.add(new WordCount(word, a == 'a' && b == 'a' ? 3 : 2));
+            }
+        }
+
+        List<WordCount> top = TextAnalytics.topRepeatedWords(text.toString(), 1000);
+
+        assertEquals(100, top.size());
+        assertEquals(expected, top);
+    }
+
+    @Test
+    void sentencesEndOnRepeatedTerminalPunctuation() {
+        List<String> sentences = TextAnalytics.splitSentences("Really?! Yes... Version 2.5 is out. Done!");
+
+        assertEquals(List.of("Really?!", "Yes...", "Version 2.5 is out.", "Done!"), sentences);
+        assertEquals(List.of("No ending punctuation"), TextAnalytics.splitSentences("  No ending punctuation  "));
+    }
+
+    @Test
+    void longestSentencesRespectMinWordsAndLimit() {
+        String text = "One two three four five. Short one. A b c d e. Six seven eight nine ten eleven. Tiny.";
+
+        assertEquals(List.of("Six seven eight nine ten eleven.", "One two three four five."),
+                TextAnalytics.longestSentences(text, 2, 3));
+        assertEquals(List.of("Six seven eight nine ten eleven.", "One two three four five.", "A b c d e."),
+                TextAnalytics.longestSentences(text, 10, 5));
+        assertTrue(TextAnalytics.longestSentences(text, 10, 7).isEmpty());
+    }
+}
@@ -0,0 +1,83 @@
+package com.tranquility.SpeakSmart.util;
+
+import com.tranquility.SpeakSmart.model.TranscriptionResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WhisperResponseParserTest {
+
+    @Test
+    void segmentsAndWordsAreReadIntoArrays() throws Exception {
+        TranscriptionResponse response = parse("""
+                {"task": "transcribe", "language": "english", "duration": 4.5, "text": " Hello there. Umm, yes.",
+                 "segments": [
+                   {"id": 0, "start": 0.0, "end": 2.0, "text": " Hello there.", "tokens": [1, 2], "avg_logprob": -0.2},
+                   {"id": 1, "start": 2.0, "end": 4.5, "text": " Umm, yes."}
+                 ],
+                 "words": [
+                   {"word": "Hello", "start": 0.0, "end": 0.5}, {"word": "there", "start": 0.6, "end": 1.1},
+                   {"word": "Umm", "start": 2.0, "end": 2.8}, {"word": "yes", "start": 3.9, "end": 4.3}
+                 ],
+                 "x_groq": {"id": "req_1", "nested": {"a": [1, {"b": 2}]}}}
+                """);
+
+        assertEquals("english", response.getLanguage());
+        assertEquals(4.5, response.getDuration());
+        assertEquals(" Hello there. Umm, yes.", response.getText());
+        assertEquals(2, response.getSegmentCount());
+        assertEquals(" Umm, yes.", response.getSegmentTexts()[1]);
+        assertEquals(4, response.getWordCount());
+        assertEquals("Umm", response.getWords()[2]);
+        assertEquals(3.9, response.getWordStarts()[3]);
+        assertEquals(4.3, response.getWordEnds()[3]);
+    }
+
+    @Test
+    void missingWordsArrayLeavesNoWords() throws Exception {
+        TranscriptionResponse response = parse("""
+                {"text": " Hi.", "duration": 1.0, "segments": [{"start": 0.0, "end": 1.0, "text": " Hi."}]}
+                """);
+
+        assertEquals(1, response.getSegmentCount());
+        assertEquals(0, response.getWordCount());
+    }
+
+    @Test
+    void missingEndsFallBackToTheNextStartOrTheDuration() throws Exception {
+        TranscriptionResponse response = parse("""
+                {"segments": [
+                   {"start": 0.0, "text": " One"}, {"start": 3.0, "text": " two"}, {"start": 5.5, "text": " three"}
+                 ],
+                 "words": [{"word": "One", "start": 0.2}, {"word": "two", "start": 3.1, "end": 3.4}, {"word": "three", "start": 5.6}],
+                 "duration": 7.0}
+                """);
+
+        assertArrayEquals(new double[]{3.0, 5.5, 7.0}, Arrays.copyOf(response.getSegmentEnds(), 3));
+        assertArrayEquals(new double[]{3.1, 3.4, 7.0}, Arrays.copyOf(response.getWordEnds(), 3));
+    }
+
+    @Test
+    void endWithNothingAfterItIsZeroLength() throws Exception {
+        TranscriptionResponse response = parse("""
+                {"segments": [{"start": 2.0, "text": " Only"}]}
+                """);
+
+        assertEquals(2.0, response.getSegmentEnds()[0]);
+    }
+
+    @Test
+    void nonObjectBodyIsRejected() {
+        assertThrows(IOException.class, () -> parse("[]"));
+    }
+
+    private static TranscriptionResponse parse(String json) throws Exception {
+        return WhisperResponseParser.parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+}